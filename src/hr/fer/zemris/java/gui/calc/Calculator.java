@@ -1,5 +1,6 @@
 package hr.fer.zemris.java.gui.calc;
 
+import java.awt.BorderLayout;
 import java.awt.Dimension;
 import java.awt.Toolkit;
 
@@ -47,7 +48,9 @@ public class Calculator extends JFrame {
 
     /**
      * Initializes the GUI by creating a panel with the {@linkplain CalcLayout}
-     * manager and adding numbers, functions, operations and methods.
+     * manager and adding numbers, functions, operations and methods. The
+     * layout has no free place left, so the button for factoring is added
+     * below the panel.
      */
     private void initGUI() {
         JPanel p = new JPanel(new CalcLayout(3));
@@ -60,7 +63,8 @@ public class Calculator extends JFrame {
         addOperations(p, display);
         addMethods(p, display);
 
-        getContentPane().add(p);
+        getContentPane().add(p, BorderLayout.CENTER);
+        getContentPane().add(new FunctionButtonFactor(display), BorderLayout.PAGE_END);
     }
 
     /**
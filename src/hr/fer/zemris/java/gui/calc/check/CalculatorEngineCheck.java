@@ -0,0 +1,92 @@
+package hr.fer.zemris.java.gui.calc.check;
+
+import hr.fer.zemris.java.gui.calc.engine.BinaryOperation;
+import hr.fer.zemris.java.gui.calc.engine.CalculatorEngine;
+
+/**
+ * This class is a headless regression check of the
+ * {@linkplain CalculatorEngine}. It drives an engine by sequences of keys, as
+ * typed on the calculator, and compares the resulting value and text with
+ * the expected ones.
+ * <p>
+ * Keys are written as characters: digits, the decimal point, the operations
+ * <tt>+ - * / ^</tt> and the equal sign <tt>=</tt>. The program prints every
+ * sequence with its result and exits with status 1 if any of them fails.
+ *
+ * @author Mario Bobic
+ */
+public class CalculatorEngineCheck {
+
+    /** Key sequences with their expected values and texts. */
+    private static final Object[][] CASES = {
+        { "2+3=",      5.0,   "5"    },
+        { "12*3+4=",   40.0,  "40"   },
+        { "1.5+2=",    3.5,   "3.5"  },
+        { "3+.",       0.0,   "0."   },
+        { "3+.5=",     3.5,   "3.5"  },
+        { "10-4-3=",   3.0,   "3"    },
+        { "9/3*2=",    6.0,   "6"    },
+        { "2^10=",     1024.0, "1024" },
+        { "1.05+1=",   2.05,  "2.05" },
+        { "2+3=4",     4.0,   "4"    },
+        { "2+3=+1=",   6.0,   "6"    },
+        { "0.1+0.2=",  0.30000000000000004, "0.3" },
+    };
+
+    /**
+     * Program entry point.
+     *
+     * @param args not used in this program
+     */
+    public static void main(String[] args) {
+        int failed = 0;
+        for (Object[] c : CASES) {
+            String keys = (String) c[0];
+            double expectedValue = (Double) c[1];
+            String expectedText = (String) c[2];
+
+            CalculatorEngine engine = new CalculatorEngine();
+            type(engine, keys);
+
+            boolean ok = Double.compare(engine.getValue(), expectedValue) == 0
+                && engine.getText().equals(expectedText);
+            if (!ok) {
+                failed++;
+            }
+            System.out.printf("%-4s %-10s -> %s (expected %s)%n",
+                ok ? "ok" : "FAIL", keys, engine.getText(), expectedText);
+        }
+
+        System.out.println(failed == 0 ? "All checks passed." : failed + " checks failed.");
+        if (failed != 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Types the specified <tt>keys</tt> on the <tt>engine</tt>.
+     *
+     * @param engine engine on which the keys are typed
+     * @param keys sequence of keys
+     * @throws IllegalArgumentException if a key is unknown
+     */
+    private static void type(CalculatorEngine engine, String keys) {
+        for (char key : keys.toCharArray()) {
+            switch (key) {
+            case '.': engine.addDecimalPoint(); break;
+            case '+': engine.setOperation(BinaryOperation.ADD); break;
+            case '-': engine.setOperation(BinaryOperation.SUBTRACT); break;
+            case '*': engine.setOperation(BinaryOperation.MULTIPLY); break;
+            case '/': engine.setOperation(BinaryOperation.DIVIDE); break;
+            case '^': engine.setOperation(BinaryOperation.POWER); break;
+            case '=': engine.executeOperation(); break;
+            default:
+                if (key < '0' || key > '9') {
+                    throw new IllegalArgumentException("Unknown key: " + key);
+                }
+                engine.appendValue(key - '0');
+            }
+        }
+    }
+
+}
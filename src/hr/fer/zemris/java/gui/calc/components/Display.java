@@ -2,13 +2,8 @@ package hr.fer.zemris.java.gui.calc.components;
 
 import java.awt.Color;
 import java.awt.Font;
-import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
 import java.util.ArrayList;
-import java.util.EmptyStackException;
 import java.util.List;
-import java.util.Locale;
-import java.util.Stack;
 
 import javax.swing.BorderFactory;
 import javax.swing.JCheckBox;
@@ -17,14 +12,18 @@ import javax.swing.border.Border;
 
 import hr.fer.zemris.java.gui.calc.Invertible;
 import hr.fer.zemris.java.gui.calc.components.numbers.NumberButton;
-import hr.fer.zemris.java.gui.calc.components.operations.Operation;
+import hr.fer.zemris.java.gui.calc.engine.CalculatorEngine;
+import hr.fer.zemris.java.gui.calc.engine.CalculatorListener;
+import hr.fer.zemris.java.gui.calc.engine.Operation;
+import hr.fer.zemris.java.gui.calc.engine.StackUnderflowException;
+import hr.fer.zemris.java.gui.calc.engine.UnaryFunction;
 
 /**
- * This class represents the Display of the calculator. It contains various
- * methods for manipulating the display and the value stored in it. This class
- * is also a model, which means when the value of the number stored in the
- * Display is changed, the same class does the function of storing the value and
- * redrawing a new value onto the Display.
+ * This class represents the Display of the calculator. It is a view of a
+ * {@linkplain CalculatorEngine}, which holds the value and the state of the
+ * calculator. Methods of this class that manipulate the value are delegated
+ * to the engine, and the display redraws the text and inverts the registered
+ * {@linkplain Invertible} objects when the engine notifies it of a change.
  *
  * @author Mario Bobic
  */
@@ -46,40 +45,8 @@ public class Display extends JTextField {
     /** The font used for displaying text. */
     private static final Font FONT = new Font(Font.MONOSPACED, Font.BOLD, 22);
 
-    /** An object associated with DecimalFormat that specified the Locale. */
-    private static final DecimalFormatSymbols LOC = new DecimalFormatSymbols(Locale.US);
-    /** The formatter used for formatting decimal numbers. */
-    private static final DecimalFormat FORMATTER = new DecimalFormat("#.##########", LOC);
-
-    /** The decimal point constant. */
-    private static final String DECIMAL_POINT = ".";
-
-    /** Value that is currently stored in Display. */
-    private double value;
-    /** Left value (first operand) for executing operations. */
-    private double left;
-    /** Right value (second operand) for executing operations. */
-    private double right;
-
-    /** Indicates that the value stored has a decimal point, for better display. */
-    private boolean isDecimal;
-
-    /** Indicates that the value has been modded from outside and needs to be
-     * reset upon appending a new value to the display. */
-    private boolean moddedFromOutside;
-
-    /** Indicates that the functions have been inverted. */
-    private boolean inversed;
-
-    /** Indicates that the value has been internally unset.
-     * Used by the {@linkplain #executeOperation()} method. */
-    private boolean valueUnset;
-
-    /** The current operation that is to be executed. */
-    private Operation operation;
-
-    /** The stack of the display. */
-    private Stack<Double> stack;
+    /** The engine whose state is shown by this display. */
+    private final CalculatorEngine engine;
 
     /** Check box that will be unchecked in the {@linkplain #reset} method. */
     private JCheckBox invCheckBox;
@@ -101,8 +68,7 @@ public class Display extends JTextField {
      * @param value value to be set as initial
      */
     public Display(double value) {
-        this(doubleToString(value));
-        this.value = value;
+        this(new CalculatorEngine(value));
     }
 
     /**
@@ -112,36 +78,52 @@ public class Display extends JTextField {
      * @param text text to be initially displayed
      */
     public Display(String text) {
-        super(text);
+        this(new CalculatorEngine());
+        setText(text);
+    }
+
+    /**
+     * Constructs an instance of {@code Display} which shows the state of the
+     * specified <tt>engine</tt>.
+     *
+     * @param engine engine whose state is shown
+     */
+    public Display(CalculatorEngine engine) {
+        super(engine.getText());
         setBorder(BORDER);
         setBackground(DISPLAY_COLOR);
         setEditable(false);
         setHorizontalAlignment(JTextField.RIGHT);
         setFont(FONT);
 
-        stack = new Stack<>();
+        this.engine = engine;
         invertibles = new ArrayList<>();
         // initialized for security reasons
         invCheckBox = new JCheckBox();
+
+        engine.addCalculatorListener(new CalculatorListener() {
+            @Override
+            public void textChanged(CalculatorEngine engine) {
+                setText(engine.getText());
+            }
+
+            @Override
+            public void inversedChanged(CalculatorEngine engine) {
+                boolean inversed = engine.isInversed();
+                invertibles.forEach((function) -> {
+                    function.setInversed(inversed);
+                });
+            }
+        });
     }
 
     /**
-     * Returns a string representation of the specified <tt>double</tt> value,
-     * formatting it the next way:
-     * <ul>
-     * <li>if the double value is not finite (is NaN or infinite), the
-     * {@linkplain Double#toString()} method is called,
-     * <li>else this class' {@linkplain #FORMATTER} is used.
+     * Returns the engine whose state is shown by this display.
      *
-     * @param value value to be returned as a formatted string
-     * @return a string representation of the specified value
+     * @return the engine of this display
      */
-    private static String doubleToString(double value) {
-        if (!Double.isFinite(value)) {
-            return Double.toString(value);
-        }
-
-        return FORMATTER.format(value);
+    public CalculatorEngine getEngine() {
+        return engine;
     }
 
     /**
@@ -151,7 +133,7 @@ public class Display extends JTextField {
      * @return the value of the decimal number of the display
      */
     public double getValue() {
-        return value;
+        return engine.getValue();
     }
 
     /**
@@ -162,25 +144,7 @@ public class Display extends JTextField {
      * @param value value to be set to this display
      */
     public void setValue(double value) {
-        moddedFromOutside = true;
-        setValue0(value);
-    }
-
-    /**
-     * Sets the value of the decimal number that is currently stored in the
-     * display to the new <tt>value</tt>. This method updates the component
-     * text.
-     * <p>
-     * The difference between this method and the public one is that the public
-     * one sets the {@linkplain #moddedFromOutside} flag.
-     *
-     * @param value value to be set to this display
-     */
-    private void setValue0(double value) {
-        this.value = value;
-        String text = doubleToString(value);
-        setText(text);
-        valueUnset = false;
+        engine.setValue(value);
     }
 
     /**
@@ -191,38 +155,24 @@ public class Display extends JTextField {
      * @param value value to be appended to the end of the current value
      */
     public void appendValue(int value) {
-        checkModification();
-
-        String text = doubleToString(this.value);
-
-        // if decimal flag has been set, but has no decimals yet
-        if (isDecimal && !text.contains(DECIMAL_POINT)) {
-            text += DECIMAL_POINT;
-        }
-
-        text += value;
-        setValue0(Double.parseDouble(text));
+        engine.appendValue(value);
     }
 
     /**
-     * Checks if the value has been modded from the outside. If the value has
-     * been modded from the outside, the value stored in this display is first
-     * set to <tt>0</tt> and then the flag {@linkplain #moddedFromOutside} is
-     * then set to false.
+     * Applies the specified <tt>function</tt> to the value currently stored
+     * in this display.
+     *
+     * @param function function to be applied
      */
-    private void checkModification() {
-        if (moddedFromOutside) {
-            this.value = 0;
-            setValue0(0);
-            moddedFromOutside = false;
-        }
+    public void apply(UnaryFunction function) {
+        engine.apply(function);
     }
 
     /**
      * Negates the value currently stored in this display.
      */
     public void negate() {
-        setValue0(-value);
+        engine.negate();
     }
 
     /**
@@ -232,7 +182,7 @@ public class Display extends JTextField {
      * @return true if the state is inverted
      */
     public boolean isInversed() {
-        return inversed;
+        return engine.isInversed();
     }
 
     /**
@@ -242,11 +192,7 @@ public class Display extends JTextField {
      * @param inversed the new state of <tt>Invertible</tt> objects
      */
     public void setInversed(boolean inversed) {
-        this.inversed = inversed;
-
-        invertibles.forEach((function) -> {
-            function.setInversed(inversed);
-        });
+        engine.setInversed(inversed);
     }
 
     /**
@@ -256,17 +202,14 @@ public class Display extends JTextField {
      * the state is set to not inverted. Else the state is set to inverted.
      */
     public void toggleInverse() {
-        setInversed(!inversed);
+        engine.toggleInverse();
     }
 
     /**
      * Adds the decimal point to the current value, if it is not present.
      */
     public void addDecimalPoint() {
-        if (!isDecimal) {
-            isDecimal = true;
-            setText(getText() + DECIMAL_POINT);
-        }
+        engine.addDecimalPoint();
     }
 
     /**
@@ -275,34 +218,18 @@ public class Display extends JTextField {
      * @return the current operation that is to be executed
      */
     public Operation getOperation() {
-        return operation;
+        return engine.getOperation();
     }
 
     /**
      * Sets the operation that is to be executed to the specified
-     * <tt>operation</tt> and prepares values for the
-     * {@linkplain #executeOperation()} method.
-     * <p>
-     * If there is already an operation set to be executed, and the value has
-     * been set as a new one (for example, if the user clicked 2, then +, then
-     * 3, and then another operation after that), the old operation is first
-     * executed before a new one is set.
+     * <tt>operation</tt>, as described by the
+     * {@linkplain CalculatorEngine#setOperation(Operation)} method.
      *
      * @param operation operation that is to be set
      */
     public void setOperation(Operation operation) {
-        if (this.operation == null) {
-            left = value;
-            isDecimal = false;
-        } else {
-            // if user clicks operations multiple times
-            if (!valueUnset)
-                executeOperation();
-        }
-
-        this.operation = operation;
-        value = 0;
-        valueUnset = true;
+        engine.setOperation(operation);
     }
 
     /**
@@ -310,64 +237,40 @@ public class Display extends JTextField {
      * {@linkplain #setOperation(Operation)} method.
      */
     public void executeOperation() {
-        if (operation != null) {
-            right = value;
-            setValue(operation.apply(left, right));
-
-            operation = null;
-            left = value;
-        }
+        engine.executeOperation();
     }
 
     /**
      * Clears the currently entered value by setting it to zero.
      */
     public void clear() {
-        setValue0(0);
-        isDecimal = false;
+        engine.clear();
     }
 
     /**
-     * Resets the calculator state to the initial one.
-     * <p>
-     * This means that:
-     * <ul>
-     * <li>all values will be cleared,
-     * <li>all flags will be reset (set to false),
-     * <li>the current operation will be set to <tt>null</tt>,
-     * <li>the stack will be cleared,
-     * <li>the inverted state will be set to false and
-     * <li>the inverse check box is unchecked
-     * </ul>
+     * Resets the calculator state to the initial one, as described by the
+     * {@linkplain CalculatorEngine#reset()} method, and unchecks the inverse
+     * check box.
      */
     public void reset() {
-        value = left = right = 0;
-        isDecimal = valueUnset = false;
-        moddedFromOutside = true;
-        operation = null;
-        stack.clear();
-
-        setInversed(false);
+        engine.reset();
         invCheckBox.setSelected(false);
-
-        // update screen
-        setValue0(value);
     }
 
     /**
      * Pushes the value that is currently stored in the display to stack.
      */
     public void push() {
-        stack.push(value);
+        engine.push();
     }
 
     /**
      * Pops the value from stack and sets it to the display.
      *
-     * @throws EmptyStackException if the stack is empty
+     * @throws StackUnderflowException if the stack is empty
      */
-    public void pop() throws EmptyStackException {
-        setValue0(stack.pop());
+    public void pop() {
+        engine.pop();
     }
 
     /**
@@ -402,6 +305,18 @@ public class Display extends JTextField {
         invCheckBox = checkBox;
     }
 
+    /**
+     * Shows the specified <tt>text</tt> on the display instead of the value,
+     * for an example a result that can not be expressed as a single number.
+     * The value stored in this display is kept, but entering a new number
+     * starts a new value, as after any function.
+     *
+     * @param text text to be shown on the display
+     */
+    public void showText(String text) {
+        engine.showText(text);
+    }
+
     /**
      * Shows the specified <tt>message</tt> on the display as an error message
      * and resets the configuration of this display by calling the
@@ -410,8 +325,8 @@ public class Display extends JTextField {
      * @param message message to be display as error
      */
     public void showError(String message) {
-        reset();  // reset configuration
-        setText(message);
+        engine.showError(message);
+        invCheckBox.setSelected(false);
     }
 
 }
@@ -1,6 +1,7 @@
 package hr.fer.zemris.java.gui.calc.components.functions;
 
 import hr.fer.zemris.java.gui.calc.components.Display;
+import hr.fer.zemris.java.gui.calc.engine.UnaryFunction;
 
 /**
  * This class represents the cosine function <tt>cos(x)</tt> and its inverse
@@ -24,11 +25,11 @@ public class FunctionButtonCos extends AbstractFunction {
 
     @Override
     protected void executeNormal(Display display) {
-        display.setValue(Math.cos(display.getValue()));
+        display.apply(UnaryFunction.COS);
     }
 
     @Override
     protected void executeInversed(Display display) {
-        display.setValue(Math.acos(display.getValue()));
+        display.apply(UnaryFunction.ARCCOS);
     }
 }
@@ -1,6 +1,7 @@
 package hr.fer.zemris.java.gui.calc.components.functions;
 
 import hr.fer.zemris.java.gui.calc.components.Display;
+import hr.fer.zemris.java.gui.calc.engine.UnaryFunction;
 
 /**
  * This class represents the cotangens function <tt>ctg(x)</tt> and its inverse
@@ -24,12 +25,12 @@ public class FunctionButtonCtg extends AbstractFunction {
 
     @Override
     protected void executeNormal(Display display) {
-        display.setValue(1 / Math.tan(display.getValue()));
+        display.apply(UnaryFunction.CTG);
     }
 
     @Override
     protected void executeInversed(Display display) {
-        display.setValue(1 / Math.atan(display.getValue()));
+        display.apply(UnaryFunction.ARCCTG);
     }
 
 }
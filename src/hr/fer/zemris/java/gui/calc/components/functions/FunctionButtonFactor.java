@@ -0,0 +1,143 @@
+package hr.fer.zemris.java.gui.calc.components.functions;
+
+import java.util.concurrent.ExecutionException;
+
+import javax.swing.SwingWorker;
+
+import hr.fer.zemris.java.gui.calc.components.Display;
+import hr.fer.zemris.java.gui.prim.PrimeFactorizer;
+
+/**
+ * This class represents the function that factors the displayed number into
+ * prime factors, for an example <tt>360 = 2^3 * 3^2 * 5</tt>.
+ * <p>
+ * Factoring is done by a {@linkplain PrimeFactorizer} in a background
+ * {@linkplain SwingWorker}, so factoring a large number does not freeze the
+ * calculator. The factors are shown on the display once they are found,
+ * unless the displayed value has been changed in the meantime. The function
+ * is the same when inverted.
+ *
+ * @author Mario Bobic
+ */
+public class FunctionButtonFactor extends AbstractFunction {
+    /** Serialization UID. */
+    private static final long serialVersionUID = 1L;
+
+    /** Factorizer shared by all buttons, created upon the first use. */
+    private static volatile PrimeFactorizer factorizer;
+
+    /** Worker that is currently factoring, <tt>null</tt> if there is none. */
+    private SwingWorker<long[], Void> worker;
+
+    /**
+     * Constructs an instance of {@code FunctionButtonFactor} and associates the
+     * display with this button.
+     *
+     * @param display display to be associated with this button
+     */
+    public FunctionButtonFactor(Display display) {
+        super(display, "factor", "factor");
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the value of the display is not a
+     *         positive integer in the range of <tt>long</tt>
+     */
+    @Override
+    protected void executeNormal(Display display) {
+        if (worker != null) {
+            return;
+        }
+
+        double value = display.getValue();
+        if (value < 1 || value >= 0x1p63 || value != Math.rint(value)) {
+            throw new IllegalArgumentException("Not a positive integer");
+        }
+        long number = (long) value;
+
+        worker = new SwingWorker<long[], Void>() {
+            @Override
+            protected long[] doInBackground() {
+                return factorizer().factor(number);
+            }
+
+            @Override
+            protected void done() {
+                worker = null;
+                setEnabled(true);
+                if (isCancelled() || display.getValue() != value) {
+                    return;
+                }
+
+                try {
+                    display.showText(format(get()));
+                } catch (ExecutionException e) {
+                    display.showError(e.getCause().getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+
+        setEnabled(false);
+        worker.execute();
+    }
+
+    @Override
+    protected void executeInversed(Display display) {
+        executeNormal(display);
+    }
+
+    /**
+     * Returns the shared factorizer, creating it first if this is the first
+     * use.
+     *
+     * @return the shared factorizer
+     */
+    private static PrimeFactorizer factorizer() {
+        PrimeFactorizer f = factorizer;
+        if (f == null) {
+            synchronized (FunctionButtonFactor.class) {
+                f = factorizer;
+                if (f == null) {
+                    factorizer = f = new PrimeFactorizer();
+                }
+            }
+        }
+        return f;
+    }
+
+    /**
+     * Returns a string representation of the specified prime <tt>factors</tt>
+     * in ascending order, with repeated factors written as powers.
+     *
+     * @param factors prime factors in ascending order
+     * @return a string representation of the factors
+     */
+    private static String format(long[] factors) {
+        if (factors.length == 0) {
+            return "1";
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < factors.length; ) {
+            int j = i;
+            while (j < factors.length && factors[j] == factors[i]) {
+                j++;
+            }
+
+            if (sb.length() > 0) {
+                sb.append(" * ");
+            }
+            sb.append(factors[i]);
+            if (j - i > 1) {
+                sb.append('^').append(j - i);
+            }
+            i = j;
+        }
+        return sb.toString();
+    }
+
+}
@@ -1,6 +1,7 @@
 package hr.fer.zemris.java.gui.calc.components.functions;
 
 import hr.fer.zemris.java.gui.calc.components.Display;
+import hr.fer.zemris.java.gui.calc.engine.UnaryFunction;
 
 /**
  * This class represents the inverse function <tt>1/x</tt>.
@@ -23,7 +24,7 @@ public class FunctionButtonInverse extends AbstractFunction {
 
     @Override
     protected void executeNormal(Display display) {
-        display.setValue(1 / display.getValue());
+        display.apply(UnaryFunction.RECIPROCAL);
     }
 
     @Override
@@ -1,6 +1,7 @@
 package hr.fer.zemris.java.gui.calc.components.functions;
 
 import hr.fer.zemris.java.gui.calc.components.Display;
+import hr.fer.zemris.java.gui.calc.engine.UnaryFunction;
 
 /**
  * This class represents the natural logarithm function <tt>ln(x)</tt> and its
@@ -24,12 +25,12 @@ public class FunctionButtonLn extends AbstractFunction {
 
     @Override
     protected void executeNormal(Display display) {
-        display.setValue(Math.log(display.getValue()));
+        display.apply(UnaryFunction.LN);
     }
 
     @Override
     protected void executeInversed(Display display) {
-        display.setValue(Math.pow(Math.E, display.getValue()));
+        display.apply(UnaryFunction.EXP);
     }
 
 }
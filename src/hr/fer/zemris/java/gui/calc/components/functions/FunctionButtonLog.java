@@ -1,6 +1,7 @@
 package hr.fer.zemris.java.gui.calc.components.functions;
 
 import hr.fer.zemris.java.gui.calc.components.Display;
+import hr.fer.zemris.java.gui.calc.engine.UnaryFunction;
 
 /**
  * This class represents the logarithm function <tt>log(x)</tt> and its inverse
@@ -24,12 +25,12 @@ public class FunctionButtonLog extends AbstractFunction {
 
     @Override
     protected void executeNormal(Display display) {
-        display.setValue(Math.log10(display.getValue()));
+        display.apply(UnaryFunction.LOG);
     }
 
     @Override
     protected void executeInversed(Display display) {
-        display.setValue(Math.pow(10, display.getValue()));
+        display.apply(UnaryFunction.POW10);
     }
 
 }
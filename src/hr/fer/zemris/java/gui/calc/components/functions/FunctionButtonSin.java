@@ -1,6 +1,7 @@
 package hr.fer.zemris.java.gui.calc.components.functions;
 
 import hr.fer.zemris.java.gui.calc.components.Display;
+import hr.fer.zemris.java.gui.calc.engine.UnaryFunction;
 
 /**
  * This class represents the sine function <tt>sin(x)</tt> and its
@@ -24,12 +25,12 @@ public class FunctionButtonSin extends AbstractFunction {
 
     @Override
     protected void executeNormal(Display display) {
-        display.setValue(Math.sin(display.getValue()));
+        display.apply(UnaryFunction.SIN);
     }
 
     @Override
     protected void executeInversed(Display display) {
-        display.setValue(Math.asin(display.getValue()));
+        display.apply(UnaryFunction.ARCSIN);
     }
 
 }
@@ -1,6 +1,7 @@
 package hr.fer.zemris.java.gui.calc.components.functions;
 
 import hr.fer.zemris.java.gui.calc.components.Display;
+import hr.fer.zemris.java.gui.calc.engine.UnaryFunction;
 
 /**
  * This class represents the tangent function <tt>tan(x)</tt> and its
@@ -24,12 +25,12 @@ public class FunctionButtonTan extends AbstractFunction {
 
     @Override
     protected void executeNormal(Display display) {
-        display.setValue(Math.tan(display.getValue()));
+        display.apply(UnaryFunction.TAN);
     }
 
     @Override
     protected void executeInversed(Display display) {
-        display.setValue(Math.atan(display.getValue()));
+        display.apply(UnaryFunction.ARCTAN);
     }
 
 }
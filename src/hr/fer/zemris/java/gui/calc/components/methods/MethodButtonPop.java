@@ -1,9 +1,8 @@
 package hr.fer.zemris.java.gui.calc.components.methods;
 
-import java.util.EmptyStackException;
-
 import hr.fer.zemris.java.gui.calc.components.AbstractButton;
 import hr.fer.zemris.java.gui.calc.components.Display;
+import hr.fer.zemris.java.gui.calc.engine.StackUnderflowException;
 
 /**
  * This class represents a <tt>pop</tt> method of the calculator.
@@ -28,8 +27,8 @@ public class MethodButtonPop extends AbstractButton {
     protected void execute(Display display) {
         try {
             display.pop();
-        } catch (EmptyStackException e) {
-            display.showError("Stack empty");
+        } catch (StackUnderflowException e) {
+            display.showError(e.getMessage());
         }
     }
 
@@ -2,14 +2,14 @@ package hr.fer.zemris.java.gui.calc.components.operations;
 
 import hr.fer.zemris.java.gui.calc.components.AbstractButton;
 import hr.fer.zemris.java.gui.calc.components.Display;
+import hr.fer.zemris.java.gui.calc.engine.BinaryOperation;
 
 /**
- * This class implements the {@linkplain Operation} interface and represents the
- * division operation of the calculator.
+ * This class represents the division operation of the calculator.
  *
  * @author Mario Bobic
  */
-public class OperationButtonDiv extends AbstractButton implements Operation {
+public class OperationButtonDiv extends AbstractButton {
     /** Serialization UID. */
     private static final long serialVersionUID = 1L;
 
@@ -25,12 +25,7 @@ public class OperationButtonDiv extends AbstractButton implements Operation {
 
     @Override
     protected void execute(Display display) {
-        display.setOperation(this);
-    }
-
-    @Override
-    public double apply(double left, double right) {
-        return left / right;
+        display.setOperation(BinaryOperation.DIVIDE);
     }
 
 }
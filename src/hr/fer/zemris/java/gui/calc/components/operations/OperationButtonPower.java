@@ -3,14 +3,16 @@ package hr.fer.zemris.java.gui.calc.components.operations;
 import hr.fer.zemris.java.gui.calc.Invertible;
 import hr.fer.zemris.java.gui.calc.components.AbstractButton;
 import hr.fer.zemris.java.gui.calc.components.Display;
+import hr.fer.zemris.java.gui.calc.engine.BinaryOperation;
 
 /**
- * This class implements the {@linkplain Operation} and {@linkplain Invertible}
- * interfaces and represents the power operation of the calculator.
+ * This class implements the {@linkplain Invertible} interface and represents
+ * the power operation of the calculator. The root is executed instead if the
+ * calculator is inverted at the time of execution.
  *
  * @author Mario Bobic
  */
-public class OperationButtonPower extends AbstractButton implements Operation, Invertible {
+public class OperationButtonPower extends AbstractButton implements Invertible {
     /** Serialization UID. */
     private static final long serialVersionUID = 1L;
 
@@ -37,12 +39,7 @@ public class OperationButtonPower extends AbstractButton implements Operation, I
 
     @Override
     protected void execute(Display display) {
-        display.setOperation(this);
-    }
-
-    @Override
-    public double apply(double left, double right) {
-        return !inversed ? Math.pow(left, right) : Math.pow(right, 1/left);
+        display.setOperation(BinaryOperation.POWER);
     }
 
     @Override
@@ -0,0 +1,74 @@
+package hr.fer.zemris.java.gui.calc.engine;
+
+/**
+ * This enumeration contains the binary operations of the calculator. Each
+ * constant is an {@linkplain Operation} that may be set to a
+ * {@linkplain CalculatorEngine}.
+ *
+ * @author Mario Bobic
+ */
+public enum BinaryOperation implements Operation {
+
+    /** Addition, <tt>x + y</tt>. */
+    ADD {
+        @Override
+        public double apply(double left, double right) {
+            return left + right;
+        }
+    },
+
+    /** Subtraction, <tt>x - y</tt>. */
+    SUBTRACT {
+        @Override
+        public double apply(double left, double right) {
+            return left - right;
+        }
+    },
+
+    /** Multiplication, <tt>x * y</tt>. */
+    MULTIPLY {
+        @Override
+        public double apply(double left, double right) {
+            return left * right;
+        }
+    },
+
+    /** Division, <tt>x / y</tt>. */
+    DIVIDE {
+        @Override
+        public double apply(double left, double right) {
+            return left / right;
+        }
+    },
+
+    /** Power, <tt>x<sup>n</sup></tt>. */
+    POWER {
+        @Override
+        public double apply(double left, double right) {
+            return Math.pow(left, right);
+        }
+    },
+
+    /** Root, the <tt>n</tt>-th root of <tt>x</tt>, where <tt>n</tt> is the left operand. */
+    ROOT {
+        @Override
+        public double apply(double left, double right) {
+            return Math.pow(right, 1/left);
+        }
+    };
+
+    /**
+     * Returns the inverse of this operation, which is the root for the power
+     * and vice versa. Other operations are their own inverse.
+     *
+     * @return the inverse of this operation
+     */
+    public BinaryOperation inverse() {
+        switch (this) {
+        case POWER: return ROOT;
+        case ROOT:  return POWER;
+        default:    return this;
+        }
+    }
+
+}
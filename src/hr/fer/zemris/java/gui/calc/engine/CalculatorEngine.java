@@ -0,0 +1,506 @@
+package hr.fer.zemris.java.gui.calc.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is the model of the calculator. It holds the value that is
+ * currently entered, the pending operation with its first operand, the stack
+ * and the inverse state, and it knows the text that is to be shown for them.
+ * <p>
+ * The engine does not depend on Swing or AWT, so it may be driven without a
+ * user interface, for an example by a batch job or by many engines on many
+ * threads. A view, such as the {@linkplain
+ * hr.fer.zemris.java.gui.calc.components.Display Display}, registers a
+ * {@linkplain CalculatorListener} and redraws itself when it is notified. The
+ * text is formatted only when it is {@linkplain #getText() asked for}, so an
+ * engine without a view does not format its values at all.
+ * <p>
+ * A number that is being entered is kept by a {@linkplain NumberEntry} and is
+ * converted to a <tt>double</tt> only when its value is needed, for an example
+ * when an operation is set or a function is applied. Entering a digit
+ * therefore allocates nothing, however long the number is. A view that asks
+ * for the text after each digit still gets a new <tt>String</tt> each time.
+ * <p>
+ * Instances of this class are not thread-safe.
+ *
+ * @author Mario Bobic
+ */
+public class CalculatorEngine {
+
+    /** The decimal point constant. */
+    private static final String DECIMAL_POINT = ".";
+
+    /** Value that is currently stored in the engine. */
+    private double value;
+    /** Left value (first operand) for executing operations. */
+    private double left;
+    /** Right value (second operand) for executing operations. */
+    private double right;
+
+    /** Indicates that the value stored has a decimal point, for better display. */
+    private boolean isDecimal;
+    /** Indicates that the decimal point has been entered, but no decimals yet. */
+    private boolean pointShown;
+    /** Text shown instead of the value, or <tt>null</tt> if the value is shown. */
+    private String shownText;
+
+    /** Number that is being entered digit by digit. */
+    private final NumberEntry entry = new NumberEntry();
+    /** Buffer where the value is formatted when its entry is continued. */
+    private final char[] buffer = new char[DoubleFormatter.MAX_LENGTH];
+    /** Indicates that the value is being entered and is kept by the entry. */
+    private boolean entering;
+    /** Indicates that the value is up to date, not waiting to be converted
+     * from the entry. */
+    private boolean converted = true;
+
+    /** Indicates that the value has been modded from outside and needs to be
+     * reset upon appending a new value. */
+    private boolean moddedFromOutside;
+
+    /** Indicates that the functions have been inverted. */
+    private boolean inversed;
+
+    /** Indicates that the value has been internally unset.
+     * Used by the {@linkplain #executeOperation()} method. */
+    private boolean valueUnset;
+
+    /** The current operation that is to be executed. */
+    private Operation operation;
+
+    /** The stack of the engine. */
+    private final DoubleStack stack = new DoubleStack();
+
+    /** List of listeners that will be alerted on changes. */
+    private final List<CalculatorListener> listeners = new ArrayList<>();
+
+    /**
+     * Constructs an instance of {@code CalculatorEngine} with value set to
+     * <tt>0</tt>.
+     */
+    public CalculatorEngine() {
+        this(0.0d);
+    }
+
+    /**
+     * Constructs an instance of {@code CalculatorEngine} with the specified
+     * initial value to be set.
+     *
+     * @param value value to be set as initial
+     */
+    public CalculatorEngine(double value) {
+        this.value = value;
+    }
+
+    /**
+     * Returns a string representation of the specified <tt>double</tt> value,
+     * formatting it the next way:
+     * <ul>
+     * <li>if the double value is not finite (is NaN or infinite), the
+     * {@linkplain Double#toString()} method is called,
+     * <li>else the value is rounded to at most 10 decimals, without trailing
+     * zeros, by the {@linkplain DoubleFormatter}.
+     * </ul>
+     *
+     * @param value value to be returned as a formatted string
+     * @return a string representation of the specified value
+     */
+    public static String format(double value) {
+        return DoubleFormatter.format(value);
+    }
+
+    /**
+     * Returns the text that is to be shown for the current state, which is the
+     * number as it is being entered, the formatted value, followed by the
+     * decimal point if it has been entered without decimals, or a text shown
+     * by {@linkplain #showText(String)}.
+     * <p>
+     * The text of an entered number is written into a reused buffer, so the
+     * returned <tt>String</tt> is the only allocation.
+     *
+     * @return the text that is to be shown
+     */
+    public String getText() {
+        if (shownText != null) {
+            return shownText;
+        }
+        if (entering) {
+            int length = entry.length();
+            char[] chars = length <= buffer.length ? buffer : new char[length];
+            entry.getChars(chars, 0);
+            return new String(chars, 0, length);
+        }
+
+        String text = format(value);
+        return pointShown ? text + DECIMAL_POINT : text;
+    }
+
+    /**
+     * Returns the value of the decimal number that is currently stored in the
+     * engine.
+     *
+     * @return the value of the decimal number of the engine
+     */
+    public double getValue() {
+        return value();
+    }
+
+    /**
+     * Returns the value of the decimal number that is currently stored in the
+     * engine, converting the entered number first if it has not been
+     * converted yet.
+     *
+     * @return the value of the decimal number of the engine
+     */
+    private double value() {
+        if (!converted) {
+            value = entry.toDouble();
+            converted = true;
+        }
+        return value;
+    }
+
+    /**
+     * Sets the value of the decimal number that is currently stored in the
+     * engine to the new <tt>value</tt>, as the result of a function. Entering
+     * a new number starts a new value afterwards.
+     *
+     * @param value value to be set to this engine
+     */
+    public void setValue(double value) {
+        moddedFromOutside = true;
+        setValue0(value);
+    }
+
+    /**
+     * Sets the value of the decimal number that is currently stored in the
+     * engine to the new <tt>value</tt> and notifies the listeners.
+     * <p>
+     * The difference between this method and the public one is that the public
+     * one sets the {@linkplain #moddedFromOutside} flag.
+     *
+     * @param value value to be set to this engine
+     */
+    private void setValue0(double value) {
+        entering = false;
+        show(value);
+    }
+
+    /**
+     * Sets the value of the decimal number that is currently stored in the
+     * engine to the new <tt>value</tt> and notifies the listeners, without
+     * ending the entry of a number.
+     *
+     * @param value value to be set to this engine
+     */
+    private void show(double value) {
+        this.value = value;
+        converted = true;
+        showValue();
+    }
+
+    /**
+     * Shows the value instead of a text shown by {@linkplain
+     * #showText(String)}, without the decimal point of an empty fraction, and
+     * notifies the listeners.
+     */
+    private void showValue() {
+        pointShown = false;
+        shownText = null;
+        valueUnset = false;
+        fireTextChanged();
+    }
+
+    /**
+     * Appends the specified digit <tt>value</tt> to the value that is already
+     * set to this engine.
+     * <p>
+     * The digits are accumulated by a {@linkplain NumberEntry}, which starts
+     * from the formatted value if it has not been entered digit by digit, so
+     * appending a digit allocates nothing. The entered number is converted to
+     * a <tt>double</tt> only when its value is needed.
+     *
+     * @param value digit to be appended to the end of the current value
+     * @throws NumberFormatException if the current value is not finite
+     */
+    public void appendValue(int value) {
+        checkModification();
+
+        if (!entering) {
+            // a new number usually starts from zero, which needs no formatting
+            if (Double.doubleToRawLongBits(this.value) == 0L) {
+                entry.clear();
+            } else {
+                entry.set(buffer, DoubleFormatter.format(this.value, buffer, 0));
+            }
+            entering = true;
+        }
+
+        // if decimal flag has been set, the digit is a decimal
+        entry.append(value, isDecimal);
+        converted = false;
+        showValue();
+    }
+
+    /**
+     * Checks if the value has been modded from the outside. If the value has
+     * been modded from the outside, the value stored in this engine is first
+     * set to <tt>0</tt> and then the flag {@linkplain #moddedFromOutside} is
+     * then set to false.
+     */
+    private void checkModification() {
+        if (moddedFromOutside) {
+            setValue0(0);
+            moddedFromOutside = false;
+        }
+    }
+
+    /**
+     * Applies the specified <tt>function</tt> to the value currently stored
+     * in this engine.
+     *
+     * @param function function to be applied
+     */
+    public void apply(UnaryFunction function) {
+        setValue(function.apply(value()));
+    }
+
+    /**
+     * Negates the value currently stored in this engine. Unlike other
+     * functions, entering digits continues the negated value.
+     */
+    public void negate() {
+        if (entering) {
+            entry.negate();
+            converted = false;
+            showValue();
+        } else {
+            setValue0(-value);
+        }
+    }
+
+    /**
+     * Returns true if the functions have been inverted. False otherwise.
+     *
+     * @return true if the state is inverted
+     */
+    public boolean isInversed() {
+        return inversed;
+    }
+
+    /**
+     * Sets the inverse state to the specified <tt>inversed</tt> flag and
+     * notifies the listeners.
+     *
+     * @param inversed the new inverse state
+     */
+    public void setInversed(boolean inversed) {
+        this.inversed = inversed;
+
+        for (CalculatorListener l : listeners) {
+            l.inversedChanged(this);
+        }
+    }
+
+    /**
+     * Toggles the inverse.
+     * <p>
+     * If the state is already inverted, the state is set to not inverted. Else
+     * the state is set to inverted.
+     */
+    public void toggleInverse() {
+        setInversed(!inversed);
+    }
+
+    /**
+     * Adds the decimal point to the current value, if it is not present.
+     */
+    public void addDecimalPoint() {
+        if (!isDecimal) {
+            isDecimal = true;
+            pointShown = true;
+            if (entering) {
+                entry.addPoint();
+            }
+            fireTextChanged();
+        }
+    }
+
+    /**
+     * Returns the current operation that is to be executed.
+     *
+     * @return the current operation that is to be executed
+     */
+    public Operation getOperation() {
+        return operation;
+    }
+
+    /**
+     * Sets the operation that is to be executed to the specified
+     * <tt>operation</tt> and prepares values for the
+     * {@linkplain #executeOperation()} method.
+     * <p>
+     * If there is already an operation set to be executed, and the value has
+     * been set as a new one (for example, if the user clicked 2, then +, then
+     * 3, and then another operation after that), the old operation is first
+     * executed before a new one is set.
+     *
+     * @param operation operation that is to be set
+     */
+    public void setOperation(Operation operation) {
+        if (this.operation == null) {
+            left = value();
+            isDecimal = false;
+        } else {
+            // if user clicks operations multiple times
+            if (!valueUnset)
+                executeOperation();
+        }
+
+        this.operation = operation;
+        // the second operand is a new number, not a continued entry
+        value = 0;
+        converted = true;
+        entering = false;
+        pointShown = false;
+        valueUnset = true;
+    }
+
+    /**
+     * Executes the operation that was specified by the
+     * {@linkplain #setOperation(Operation)} method. If the engine is inverted
+     * at this time, the {@linkplain BinaryOperation#inverse() inverse} of a
+     * {@linkplain BinaryOperation} is executed instead.
+     */
+    public void executeOperation() {
+        if (operation != null) {
+            Operation operation = this.operation;
+            if (inversed && operation instanceof BinaryOperation) {
+                operation = ((BinaryOperation) operation).inverse();
+            }
+
+            right = value();
+            setValue(operation.apply(left, right));
+
+            this.operation = null;
+            left = value;
+        }
+    }
+
+    /**
+     * Clears the currently entered value by setting it to zero.
+     */
+    public void clear() {
+        setValue0(0);
+        isDecimal = false;
+    }
+
+    /**
+     * Resets the engine state to the initial one.
+     * <p>
+     * This means that:
+     * <ul>
+     * <li>all values will be cleared,
+     * <li>all flags will be reset (set to false),
+     * <li>the current operation will be set to <tt>null</tt>,
+     * <li>the stack will be cleared and
+     * <li>the inverted state will be set to false
+     * </ul>
+     */
+    public void reset() {
+        value = left = right = 0;
+        isDecimal = valueUnset = false;
+        moddedFromOutside = true;
+        operation = null;
+        stack.clear();
+
+        setInversed(false);
+
+        // update screen
+        setValue0(value);
+    }
+
+    /**
+     * Pushes the value that is currently stored in the engine to stack.
+     */
+    public void push() {
+        stack.push(value());
+    }
+
+    /**
+     * Pops the value from stack and sets it to the engine.
+     *
+     * @throws StackUnderflowException if the stack is empty
+     */
+    public void pop() {
+        setValue0(stack.pop());
+    }
+
+    /**
+     * Returns the stack of this engine, which offers further operations on
+     * the pushed values, such as {@linkplain DoubleStack#swap() swap} and
+     * {@linkplain DoubleStack#roll(int) roll}.
+     *
+     * @return the stack of this engine
+     */
+    public DoubleStack getStack() {
+        return stack;
+    }
+
+    /**
+     * Shows the specified <tt>text</tt> instead of the value, for an example a
+     * result that can not be expressed as a single number. The value stored
+     * in this engine is kept, but entering a new number starts a new value,
+     * as after any function.
+     *
+     * @param text text to be shown
+     */
+    public void showText(String text) {
+        moddedFromOutside = true;
+        shownText = text;
+        fireTextChanged();
+    }
+
+    /**
+     * Shows the specified <tt>message</tt> as an error message and resets the
+     * configuration of this engine by calling the {@linkplain #reset()}
+     * method.
+     *
+     * @param message message to be shown as error
+     */
+    public void showError(String message) {
+        reset();  // reset configuration
+        showText(message);
+    }
+
+    /**
+     * Adds the specified listener to the list of listeners that are notified
+     * of changes of this engine.
+     *
+     * @param l the listener to be added
+     */
+    public void addCalculatorListener(CalculatorListener l) {
+        listeners.add(l);
+    }
+
+    /**
+     * Removes the specified listener from the list of listeners that are
+     * notified of changes of this engine.
+     *
+     * @param l the listener to be removed
+     */
+    public void removeCalculatorListener(CalculatorListener l) {
+        listeners.remove(l);
+    }
+
+    /**
+     * Notifies the listeners that the text to be shown has changed.
+     */
+    private void fireTextChanged() {
+        for (CalculatorListener l : listeners) {
+            l.textChanged(this);
+        }
+    }
+
+}
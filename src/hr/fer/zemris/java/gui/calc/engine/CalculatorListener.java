@@ -0,0 +1,28 @@
+package hr.fer.zemris.java.gui.calc.engine;
+
+/**
+ * The listener interface for receiving changes of a
+ * {@linkplain CalculatorEngine}. Listeners receive the engine itself instead
+ * of an event object, so notifying them allocates nothing, and read the new
+ * state from it.
+ *
+ * @author Mario Bobic
+ */
+public interface CalculatorListener {
+
+    /**
+     * Invoked when the text that the engine shows has changed, usually
+     * because its value has changed.
+     *
+     * @param engine the engine whose text has changed
+     */
+    void textChanged(CalculatorEngine engine);
+
+    /**
+     * Invoked when the inverse state of the engine has changed.
+     *
+     * @param engine the engine whose inverse state has changed
+     */
+    void inversedChanged(CalculatorEngine engine);
+
+}
@@ -0,0 +1,202 @@
+package hr.fer.zemris.java.gui.calc.engine;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * This class formats <tt>double</tt> values the way the calculator shows
+ * them, which is the way of a <tt>DecimalFormat</tt> with the pattern
+ * <tt>"#.##########"</tt> in the US locale: rounded to at most
+ * {@value #DECIMALS} decimals by the {@linkplain RoundingMode#HALF_EVEN
+ * HALF_EVEN} mode, without trailing zeros, grouping or an exponent, and with
+ * the minus sign kept for negative values that round to zero, as in
+ * <tt>"-0"</tt>. Values that are not finite are formatted by
+ * {@linkplain Double#toString(double)}.
+ * <p>
+ * The value is rounded from its shortest decimal representation, as given by
+ * {@linkplain Double#toString(double)}, and a tie in those digits is broken by
+ * the exact binary value, as the <tt>DecimalFormat</tt> does. The only
+ * exception of the <tt>DecimalFormat</tt> is followed as well: a tie without
+ * any kept digit before it, which is the value {@value #HALF_OF_LAST_DECIMAL}
+ * and its negation, is rounded to zero. Values below {@value #FAST_PATH_LIMIT} in magnitude
+ * are rounded without any allocation: the product of the value and
+ * 10<sup>10</sup> is computed exactly as a sum of two doubles by
+ * {@linkplain Math#fma(double, double, double)}, and rounded to a
+ * <tt>long</tt>. The shortest representation of such a value never lies on
+ * the other side of a rounding boundary than the value itself, so this gives
+ * the same digits. Greater values are rounded by a {@linkplain BigDecimal}.
+ * <p>
+ * This class has no state, so it may be used by any number of threads at
+ * once. The formatted value is written into an array of characters supplied
+ * by the caller, which may be reused between calls.
+ *
+ * @author Mario Bobic
+ */
+public final class DoubleFormatter {
+
+    /** Maximum number of decimals. */
+    public static final int DECIMALS = 10;
+    /** Maximum number of characters of a formatted value: a sign, 309 integer
+     * digits, the decimal point and the decimals. */
+    public static final int MAX_LENGTH = 1 + 309 + 1 + DECIMALS;
+
+    /** Values below this limit in magnitude are formatted on the fast path. */
+    private static final double FAST_PATH_LIMIT = 65536;
+    /** Half of the last kept decimal, whose shortest digits are a tie. */
+    private static final double HALF_OF_LAST_DECIMAL = 5e-11;
+    /** Scale of the decimals, 10<sup>{@value #DECIMALS}</sup>. */
+    private static final long SCALE = 10_000_000_000L;
+
+    /**
+     * Disable instantiation.
+     */
+    private DoubleFormatter() {
+    }
+
+    /**
+     * Returns the specified <tt>value</tt> formatted as described by this
+     * class.
+     *
+     * @param value value to be formatted
+     * @return the formatted value
+     */
+    public static String format(double value) {
+        if (!Double.isFinite(value)) {
+            return Double.toString(value);
+        }
+        if (Math.abs(value) < FAST_PATH_LIMIT) {
+            char[] chars = new char[24];
+            int length = formatFast(value, chars, 0);
+            return new String(chars, 0, length);
+        }
+        return formatSlow(value);
+    }
+
+    /**
+     * Writes the specified <tt>value</tt> formatted as described by this
+     * class into the <tt>dest</tt> array, starting at the <tt>offset</tt>, and
+     * returns the number of written characters. An array with at least
+     * {@value #MAX_LENGTH} characters after the offset is large enough for any
+     * value.
+     *
+     * @param value value to be formatted
+     * @param dest array where the characters are written
+     * @param offset index of the first written character
+     * @return the number of written characters
+     * @throws IndexOutOfBoundsException if the formatted value does not fit
+     *         into the array
+     */
+    public static int format(double value, char[] dest, int offset) {
+        if (Double.isFinite(value) && Math.abs(value) < FAST_PATH_LIMIT) {
+            return formatFast(value, dest, offset);
+        }
+
+        String text = Double.isFinite(value) ? formatSlow(value) : Double.toString(value);
+        text.getChars(0, text.length(), dest, offset);
+        return text.length();
+    }
+
+    /**
+     * Writes the specified <tt>value</tt>, whose magnitude is less than the
+     * {@linkplain #FAST_PATH_LIMIT}, into the <tt>dest</tt> array and returns
+     * the number of written characters.
+     *
+     * @param value value to be formatted
+     * @param dest array where the characters are written
+     * @param offset index of the first written character
+     * @return the number of written characters
+     */
+    private static int formatFast(double value, char[] dest, int offset) {
+        boolean negative = (Double.doubleToRawLongBits(value) < 0);
+        double abs = Math.abs(value);
+
+        // the exact product is hi + lo, where lo is the error of hi
+        double hi = abs * SCALE;
+        double lo = Math.fma(abs, SCALE, -hi);
+        double rounded = Math.rint(hi);
+        double diff = hi - rounded;
+        // rint breaks ties to even, which is wrong if lo moves off the tie
+        if (diff == 0.5 && lo > 0) {
+            rounded++;
+        } else if (diff == -0.5 && lo < 0) {
+            rounded--;
+        }
+        // DecimalFormat rounds this tie down, regardless of the binary value
+        if (abs == HALF_OF_LAST_DECIMAL) {
+            rounded = 0;
+        }
+
+        long scaled = (long) rounded;
+        long integer = scaled / SCALE;
+        long fraction = scaled % SCALE;
+
+        int pos = offset;
+        if (negative) {
+            dest[pos++] = '-';
+        }
+        pos = writeDigits(integer, dest, pos);
+
+        if (fraction != 0) {
+            int decimals = DECIMALS;
+            while (fraction % 10 == 0) {
+                fraction /= 10;
+                decimals--;
+            }
+            dest[pos] = '.';
+            for (int i = pos + decimals; i > pos; i--) {
+                dest[i] = (char) ('0' + fraction % 10);
+                fraction /= 10;
+            }
+            pos += decimals + 1;
+        }
+        return pos - offset;
+    }
+
+    /**
+     * Writes the decimal digits of the specified non-negative <tt>number</tt>
+     * into the <tt>dest</tt> array and returns the index after the last one.
+     *
+     * @param number a non-negative number less than 10<sup>18</sup>
+     * @param dest array where the digits are written
+     * @param pos index of the first digit
+     * @return the index after the last digit
+     */
+    private static int writeDigits(long number, char[] dest, int pos) {
+        int digits = 1;
+        for (long limit = 10; limit <= number; limit *= 10) {
+            digits++;
+        }
+
+        int end = pos + digits;
+        for (int i = end - 1; i >= pos; i--) {
+            dest[i] = (char) ('0' + number % 10);
+            number /= 10;
+        }
+        return end;
+    }
+
+    /**
+     * Returns the specified finite <tt>value</tt> formatted by rounding its
+     * shortest decimal representation by a {@linkplain BigDecimal}.
+     *
+     * @param value a finite value
+     * @return the formatted value
+     */
+    private static String formatSlow(double value) {
+        BigDecimal shortest = new BigDecimal(Double.toString(value));
+        BigDecimal rounded = shortest.setScale(DECIMALS, RoundingMode.HALF_EVEN);
+
+        // a tie in the shortest digits is broken by the exact value
+        BigDecimal half = shortest.subtract(rounded).abs().movePointRight(DECIMALS);
+        if (half.compareTo(new BigDecimal("0.5")) == 0) {
+            int side = new BigDecimal(value).compareTo(shortest);
+            if (side != 0) {
+                RoundingMode mode = (side > 0) == (value > 0) ? RoundingMode.UP : RoundingMode.DOWN;
+                rounded = shortest.setScale(DECIMALS, mode);
+            }
+        }
+
+        return rounded.stripTrailingZeros().toPlainString();
+    }
+
+}
@@ -0,0 +1,174 @@
+package hr.fer.zemris.java.gui.calc.engine;
+
+import java.util.Arrays;
+
+/**
+ * This class represents a stack of primitive <tt>double</tt> values, kept in
+ * an array that grows as needed. Unlike a {@linkplain java.util.Stack} of
+ * <tt>Double</tt> objects, values are not boxed and the methods are not
+ * synchronized, so pushing and popping allocates nothing once the array is
+ * large enough.
+ * <p>
+ * Besides the usual stack operations, this stack offers the operations of an
+ * RPN calculator: {@linkplain #dup()}, {@linkplain #swap()} and
+ * {@linkplain #roll(int)}. Operations that need more values than there are on
+ * the stack throw a {@linkplain StackUnderflowException} and leave the stack
+ * unchanged.
+ * <p>
+ * Instances of this class are not thread-safe.
+ *
+ * @author Mario Bobic
+ */
+public class DoubleStack {
+
+    /** Default initial capacity of the stack. */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /** Values on the stack, the top one at <tt>size - 1</tt>. */
+    private double[] elements;
+    /** Number of values on the stack. */
+    private int size;
+
+    /**
+     * Constructs an empty instance of {@code DoubleStack} with the default
+     * initial capacity.
+     */
+    public DoubleStack() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty instance of {@code DoubleStack} with the specified
+     * initial <tt>capacity</tt>.
+     *
+     * @param capacity the initial capacity
+     * @throws IllegalArgumentException if <tt>capacity &lt; 1</tt>
+     */
+    public DoubleStack(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        elements = new double[capacity];
+    }
+
+    /**
+     * Pushes the specified <tt>value</tt> onto the top of this stack.
+     *
+     * @param value value to be pushed
+     */
+    public void push(double value) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, size * 2);
+        }
+        elements[size++] = value;
+    }
+
+    /**
+     * Removes the value at the top of this stack and returns it.
+     *
+     * @return the value at the top of this stack
+     * @throws StackUnderflowException if the stack is empty
+     */
+    public double pop() {
+        require(1);
+        return elements[--size];
+    }
+
+    /**
+     * Returns the value at the top of this stack without removing it.
+     *
+     * @return the value at the top of this stack
+     * @throws StackUnderflowException if the stack is empty
+     */
+    public double peek() {
+        require(1);
+        return elements[size - 1];
+    }
+
+    /**
+     * Returns the number of values on this stack.
+     *
+     * @return the number of values on this stack
+     */
+    public int depth() {
+        return size;
+    }
+
+    /**
+     * Returns true if there are no values on this stack.
+     *
+     * @return true if this stack is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Pushes a copy of the value at the top of this stack.
+     *
+     * @throws StackUnderflowException if the stack is empty
+     */
+    public void dup() {
+        push(peek());
+    }
+
+    /**
+     * Exchanges the two values at the top of this stack.
+     *
+     * @throws StackUnderflowException if there are less than two values on
+     *         the stack
+     */
+    public void swap() {
+        require(2);
+        double top = elements[size - 1];
+        elements[size - 1] = elements[size - 2];
+        elements[size - 2] = top;
+    }
+
+    /**
+     * Moves the <tt>n</tt>-th value from the top of this stack to the top,
+     * shifting the values above it down by one. The top value is the first,
+     * so <tt>roll(1)</tt> does nothing and <tt>roll(2)</tt> is equal to
+     * {@linkplain #swap()}.
+     *
+     * @param n position of the value from the top, starting at 1
+     * @throws IllegalArgumentException if <tt>n &lt; 1</tt>
+     * @throws StackUnderflowException if there are less than <tt>n</tt>
+     *         values on the stack
+     */
+    public void roll(int n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Position must be positive: " + n);
+        }
+        require(n);
+
+        int from = size - n;
+        double value = elements[from];
+        System.arraycopy(elements, from + 1, elements, from, n - 1);
+        elements[size - 1] = value;
+    }
+
+    /**
+     * Removes all values from this stack.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Throws a {@linkplain StackUnderflowException} if there are less than
+     * <tt>n</tt> values on this stack.
+     *
+     * @param n number of values needed
+     * @throws StackUnderflowException if there are less than <tt>n</tt>
+     *         values on the stack
+     */
+    private void require(int n) {
+        if (size < n) {
+            throw new StackUnderflowException(size == 0
+                ? "Stack empty"
+                : "Not enough values on stack: " + size + " of " + n);
+        }
+    }
+
+}
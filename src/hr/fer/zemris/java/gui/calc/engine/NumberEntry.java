@@ -0,0 +1,227 @@
+package hr.fer.zemris.java.gui.calc.engine;
+
+/**
+ * This class accumulates a decimal number that is being entered digit by
+ * digit. The digits are kept as a <tt>long</tt> mantissa with a decimal
+ * scale and exponent, so appending a digit allocates nothing, and the entered
+ * number is converted to a <tt>double</tt> only when it is asked for, without
+ * being formatted and parsed again. Unlike a round trip through the formatted value,
+ * the entered digits are kept exactly, including zeros after the decimal
+ * point, such as in <tt>1.05</tt>.
+ * <p>
+ * The value of the entry is <tt>mantissa * 10<sup>exponent - scale</sup></tt>.
+ * Integer digits that do not fit into the mantissa are counted by the
+ * exponent, and decimals that do not fit are dropped, since a <tt>double</tt>
+ * has fewer significant digits than the mantissa anyway.
+ *
+ * @author Mario Bobic
+ */
+final class NumberEntry {
+
+    /** The largest mantissa to which another digit can be appended. */
+    private static final long MAX_MANTISSA = (Long.MAX_VALUE - 9) / 10;
+    /** The largest mantissa that is exactly representable by a double. */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    /** Powers of ten that are exactly representable by a double. */
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /** Entered digits, without the decimal point. */
+    private long mantissa;
+    /** Number of entered decimals. */
+    private int scale;
+    /** Number of integer digits that did not fit into the mantissa. */
+    private int exponent;
+    /** Indicates that the entered number is negative. */
+    private boolean negative;
+    /** Indicates that the decimal point has been entered. */
+    private boolean fraction;
+
+    /**
+     * Clears this entry, so it represents a positive zero without decimals.
+     */
+    void clear() {
+        mantissa = 0;
+        scale = 0;
+        exponent = 0;
+        negative = false;
+        fraction = false;
+    }
+
+    /**
+     * Sets this entry to the decimal number written in the first
+     * <tt>length</tt> characters of the <tt>text</tt>, such as the formatted
+     * value of the calculator, so that entering digits continues it. The text
+     * consists of an optional minus sign, digits and an optional decimal
+     * point.
+     *
+     * @param text a decimal number
+     * @param length number of characters of the decimal number
+     * @throws NumberFormatException if the text is not a decimal number, for
+     *         an example if it is <tt>NaN</tt> or <tt>Infinity</tt>
+     */
+    void set(char[] text, int length) {
+        clear();
+        for (int i = 0; i < length; i++) {
+            char c = text[i];
+            if (c == '-') {
+                negative = true;
+            } else if (c == '.') {
+                fraction = true;
+            } else if (c >= '0' && c <= '9') {
+                append(c - '0', false);
+            } else {
+                throw new NumberFormatException(
+                    "For input string: \"" + new String(text, 0, length) + "\"");
+            }
+        }
+    }
+
+    /**
+     * Appends the specified <tt>digit</tt> to this entry, as a decimal if the
+     * decimal point has been entered or the <tt>decimal</tt> flag is set.
+     *
+     * @param digit digit to be appended, in range 0-9
+     * @param decimal true if the digit is a decimal even without the point
+     */
+    void append(int digit, boolean decimal) {
+        if (decimal) {
+            fraction = true;
+        }
+
+        if (mantissa <= MAX_MANTISSA) {
+            mantissa = mantissa * 10 + digit;
+            if (fraction) {
+                scale++;
+            }
+        } else if (!fraction) {
+            exponent++;
+        }
+    }
+
+    /**
+     * Enters the decimal point, so the following digits are decimals.
+     */
+    void addPoint() {
+        fraction = true;
+    }
+
+    /**
+     * Negates this entry.
+     */
+    void negate() {
+        negative = !negative;
+    }
+
+    /**
+     * Returns the <tt>double</tt> value nearest to the entered number. The
+     * value is calculated by a single correctly rounded operation if the
+     * mantissa and the power of ten are both exact doubles, which is the case
+     * for numbers of up to 15 significant digits. Otherwise it is calculated
+     * by {@linkplain Double#parseDouble(String)}, which allocates, so the
+     * {@linkplain CalculatorEngine} calls this method only when the value of
+     * the entered number is needed, not for every digit.
+     *
+     * @return the value of the entered number
+     */
+    double toDouble() {
+        int e = exponent - scale;
+        double value;
+        if (mantissa <= MAX_EXACT_MANTISSA && -POWERS_OF_TEN.length < e && e < POWERS_OF_TEN.length) {
+            value = e < 0 ? mantissa / POWERS_OF_TEN[-e] : mantissa * POWERS_OF_TEN[e];
+        } else {
+            value = Double.parseDouble(mantissa + "E" + e);
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Returns the number of characters of the entered number as it was typed,
+     * as written by {@linkplain #getChars(char[], int)}.
+     *
+     * @return the number of characters of the entered number
+     */
+    int length() {
+        // leading zeros pad the digits so there is an integer digit before the point
+        int length = Math.max(digits(mantissa), scale + 1) + exponent;
+        if (negative) {
+            length++;
+        }
+        if (fraction) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Writes the entered number as it was typed, including zeros after the
+     * decimal point and the decimal point itself if no decimals follow it,
+     * into the <tt>dest</tt> array, starting at the <tt>offset</tt>, and
+     * returns the number of written characters, which is the
+     * {@linkplain #length()} of the entry.
+     *
+     * @param dest array where the characters are written
+     * @param offset index of the first written character
+     * @return the number of written characters
+     * @throws IndexOutOfBoundsException if the entered number does not fit
+     *         into the array
+     */
+    int getChars(char[] dest, int offset) {
+        int length = length();
+        int pos = offset + length;
+
+        // written backwards: the point without decimals, the exponent zeros,
+        // the decimals and the integer digits
+        if (fraction && scale == 0) {
+            dest[--pos] = '.';
+        }
+        for (int i = 0; i < exponent; i++) {
+            dest[--pos] = '0';
+        }
+        long m = mantissa;
+        int digits = Math.max(digits(mantissa), scale + 1);
+        for (int i = 0; i < digits; i++) {
+            if (fraction && i == scale && scale > 0) {
+                dest[--pos] = '.';
+            }
+            dest[--pos] = (char) ('0' + m % 10);
+            m /= 10;
+        }
+        if (negative) {
+            dest[--pos] = '-';
+        }
+        return length;
+    }
+
+    /**
+     * Returns the number of decimal digits of the specified non-negative
+     * <tt>number</tt>.
+     *
+     * @param number a non-negative number
+     * @return the number of decimal digits
+     */
+    private static int digits(long number) {
+        int digits = 1;
+        while (number >= 10) {
+            number /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    /**
+     * Returns the entered number as it was typed, including zeros after the
+     * decimal point and the decimal point itself if no decimals follow it.
+     *
+     * @return the entered number as text
+     */
+    @Override
+    public String toString() {
+        char[] chars = new char[length()];
+        getChars(chars, 0);
+        return new String(chars);
+    }
+
+}
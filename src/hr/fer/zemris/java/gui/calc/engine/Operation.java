@@ -1,4 +1,4 @@
-package hr.fer.zemris.java.gui.calc.components.operations;
+package hr.fer.zemris.java.gui.calc.engine;
 
 /**
  * This interface represents an operation that may be applied to two double
@@ -0,0 +1,23 @@
+package hr.fer.zemris.java.gui.calc.engine;
+
+/**
+ * Thrown by a {@linkplain DoubleStack} to indicate that an operation needs
+ * more values than there are on the stack.
+ *
+ * @author Mario Bobic
+ */
+public class StackUnderflowException extends RuntimeException {
+    /** Serialization UID. */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs an instance of {@code StackUnderflowException} with the
+     * specified detail message.
+     *
+     * @param message the detail message
+     */
+    public StackUnderflowException(String message) {
+        super(message);
+    }
+
+}
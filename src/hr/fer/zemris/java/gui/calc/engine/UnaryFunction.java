@@ -0,0 +1,155 @@
+package hr.fer.zemris.java.gui.calc.engine;
+
+/**
+ * This enumeration contains the functions of the calculator that are applied
+ * to a single value, each paired with its inverse function.
+ *
+ * @author Mario Bobic
+ */
+public enum UnaryFunction {
+
+    /** Sine, <tt>sin(x)</tt>. */
+    SIN {
+        @Override
+        public double apply(double x) {
+            return Math.sin(x);
+        }
+    },
+
+    /** Arcus sine, <tt>arcsin(x)</tt>. */
+    ARCSIN {
+        @Override
+        public double apply(double x) {
+            return Math.asin(x);
+        }
+    },
+
+    /** Cosine, <tt>cos(x)</tt>. */
+    COS {
+        @Override
+        public double apply(double x) {
+            return Math.cos(x);
+        }
+    },
+
+    /** Arcus cosine, <tt>arccos(x)</tt>. */
+    ARCCOS {
+        @Override
+        public double apply(double x) {
+            return Math.acos(x);
+        }
+    },
+
+    /** Tangent, <tt>tan(x)</tt>. */
+    TAN {
+        @Override
+        public double apply(double x) {
+            return Math.tan(x);
+        }
+    },
+
+    /** Arcus tangent, <tt>arctan(x)</tt>. */
+    ARCTAN {
+        @Override
+        public double apply(double x) {
+            return Math.atan(x);
+        }
+    },
+
+    /** Cotangent, <tt>ctg(x)</tt>. */
+    CTG {
+        @Override
+        public double apply(double x) {
+            return 1 / Math.tan(x);
+        }
+    },
+
+    /** Inverse of the cotangent, as calculated by the calculator, <tt>1 / arctan(x)</tt>. */
+    ARCCTG {
+        @Override
+        public double apply(double x) {
+            return 1 / Math.atan(x);
+        }
+    },
+
+    /** Decimal logarithm, <tt>log(x)</tt>. */
+    LOG {
+        @Override
+        public double apply(double x) {
+            return Math.log10(x);
+        }
+    },
+
+    /** Power of ten, <tt>10<sup>x</sup></tt>. */
+    POW10 {
+        @Override
+        public double apply(double x) {
+            return Math.pow(10, x);
+        }
+    },
+
+    /** Natural logarithm, <tt>ln(x)</tt>. */
+    LN {
+        @Override
+        public double apply(double x) {
+            return Math.log(x);
+        }
+    },
+
+    /** Power of the Euler's number, <tt>e<sup>x</sup></tt>. */
+    EXP {
+        @Override
+        public double apply(double x) {
+            return Math.pow(Math.E, x);
+        }
+    },
+
+    /** Reciprocal value, <tt>1/x</tt>. */
+    RECIPROCAL {
+        @Override
+        public double apply(double x) {
+            return 1 / x;
+        }
+    },
+
+    /** Negation, <tt>-x</tt>. */
+    NEGATE {
+        @Override
+        public double apply(double x) {
+            return -x;
+        }
+    };
+
+    /**
+     * Applies this function to the specified value.
+     *
+     * @param x the argument of the function
+     * @return the value of the function
+     */
+    public abstract double apply(double x);
+
+    /**
+     * Returns the inverse of this function. The reciprocal value and the
+     * negation are their own inverse.
+     *
+     * @return the inverse of this function
+     */
+    public UnaryFunction inverse() {
+        switch (this) {
+        case SIN:    return ARCSIN;
+        case ARCSIN: return SIN;
+        case COS:    return ARCCOS;
+        case ARCCOS: return COS;
+        case TAN:    return ARCTAN;
+        case ARCTAN: return TAN;
+        case CTG:    return ARCCTG;
+        case ARCCTG: return CTG;
+        case LOG:    return POW10;
+        case POW10:  return LOG;
+        case LN:     return EXP;
+        case EXP:    return LN;
+        default:     return this;
+        }
+    }
+
+}
@@ -0,0 +1,44 @@
+package hr.fer.zemris.java.gui.calc.expression;
+
+import hr.fer.zemris.java.gui.calc.engine.BinaryOperation;
+
+/**
+ * A {@linkplain Node} which applies a {@linkplain BinaryOperation} to the
+ * values of its two operands.
+ *
+ * @author Mario Bobic
+ */
+final class BinaryNode implements Node {
+
+    /** Operation applied to the operands. */
+    private final BinaryOperation operation;
+    /** The first operand. */
+    private final Node left;
+    /** The second operand. */
+    private final Node right;
+
+    /**
+     * Constructs an instance of {@code BinaryNode} with the specified
+     * parameters.
+     *
+     * @param operation operation applied to the operands
+     * @param left the first operand
+     * @param right the second operand
+     */
+    BinaryNode(BinaryOperation operation, Node left, Node right) {
+        this.operation = operation;
+        this.left = left;
+        this.right = right;
+    }
+
+    @Override
+    public double evaluate(double[] variables) {
+        return operation.apply(left.evaluate(variables), right.evaluate(variables));
+    }
+
+    @Override
+    public boolean isConstant() {
+        return left.isConstant() && right.isConstant();
+    }
+
+}
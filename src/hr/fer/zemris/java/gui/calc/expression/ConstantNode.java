@@ -0,0 +1,34 @@
+package hr.fer.zemris.java.gui.calc.expression;
+
+/**
+ * A {@linkplain Node} with a constant value, such as a number in an
+ * expression or a subexpression without variables.
+ *
+ * @author Mario Bobic
+ */
+final class ConstantNode implements Node {
+
+    /** Value of this node. */
+    private final double value;
+
+    /**
+     * Constructs an instance of {@code ConstantNode} with the specified
+     * value.
+     *
+     * @param value value of this node
+     */
+    ConstantNode(double value) {
+        this.value = value;
+    }
+
+    @Override
+    public double evaluate(double[] variables) {
+        return value;
+    }
+
+    @Override
+    public boolean isConstant() {
+        return true;
+    }
+
+}
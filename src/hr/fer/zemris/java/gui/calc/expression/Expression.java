@@ -0,0 +1,108 @@
+package hr.fer.zemris.java.gui.calc.expression;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class represents a compiled infix expression, as returned by the
+ * {@linkplain ExpressionParser}. The expression is a tree of nodes which is
+ * evaluated directly, so evaluating it again with other values of its
+ * variables does not parse the text again. Variables are resolved to indices
+ * upon compilation, and their values are passed in an array in the order of
+ * {@linkplain #getVariables()}, so an evaluation allocates nothing.
+ * <p>
+ * Instances of this class are immutable and may be evaluated by many threads
+ * at once.
+ *
+ * @author Mario Bobic
+ */
+public final class Expression {
+
+    /** Values of variables for an expression without variables. */
+    private static final double[] NO_VARIABLES = new double[0];
+
+    /** The parsed text. */
+    private final String text;
+    /** Root of the tree. */
+    private final Node root;
+    /** Names of the variables, in order of their indices. */
+    private final List<String> variables;
+
+    /**
+     * Constructs an instance of {@code Expression} with the specified
+     * parameters.
+     *
+     * @param text the parsed text
+     * @param root root of the tree
+     * @param variables names of the variables, in order of their indices
+     */
+    Expression(String text, Node root, List<String> variables) {
+        this.text = text;
+        this.root = root;
+        this.variables = Collections.unmodifiableList(variables);
+    }
+
+    /**
+     * Returns the names of the variables of this expression, in order of their
+     * first appearance in the text, which is the order in which their values
+     * are passed to the {@linkplain #evaluate(double...)} method.
+     *
+     * @return an unmodifiable list of names of the variables
+     */
+    public List<String> getVariables() {
+        return variables;
+    }
+
+    /**
+     * Returns the index of the variable with the specified <tt>name</tt>, or
+     * <tt>-1</tt> if the expression has no such variable.
+     *
+     * @param name name of the variable
+     * @return the index of the variable, or <tt>-1</tt> if there is none
+     */
+    public int indexOf(String name) {
+        return variables.indexOf(name);
+    }
+
+    /**
+     * Returns true if this expression has no variables.
+     *
+     * @return true if this expression is constant
+     */
+    public boolean isConstant() {
+        return variables.isEmpty();
+    }
+
+    /**
+     * Evaluates this expression with the specified values of its variables,
+     * in order of {@linkplain #getVariables()}.
+     *
+     * @param values values of the variables
+     * @return the value of the expression
+     * @throws IllegalArgumentException if less values are given than there
+     *         are variables
+     */
+    public double evaluate(double... values) {
+        if (values.length < variables.size()) {
+            throw new IllegalArgumentException(
+                "Expected " + variables.size() + " values, got: " + values.length);
+        }
+        return root.evaluate(values);
+    }
+
+    /**
+     * Evaluates this expression, which must have no variables.
+     *
+     * @return the value of the expression
+     * @throws IllegalArgumentException if the expression has variables
+     */
+    public double evaluate() {
+        return evaluate(NO_VARIABLES);
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+}
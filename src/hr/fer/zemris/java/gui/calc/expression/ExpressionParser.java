@@ -0,0 +1,332 @@
+package hr.fer.zemris.java.gui.calc.expression;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import hr.fer.zemris.java.gui.calc.engine.BinaryOperation;
+import hr.fer.zemris.java.gui.calc.engine.UnaryFunction;
+
+/**
+ * This class parses infix expressions by recursive descent and compiles them
+ * into {@linkplain Expression} trees, using the operations and functions of
+ * the calculator engine. The grammar, from the lowest to the highest
+ * precedence, is:
+ *
+ * <pre>
+ * expression := term (('+' | '-') term)*
+ * term       := unary (('*' | '/') unary)*
+ * unary      := ('-' | '+') unary | power
+ * power      := primary ('^' unary)?
+ * primary    := number | variable | function '(' expression ')' | '(' expression ')'
+ * </pre>
+ *
+ * The power is right-associative and binds tighter than the unary minus, so
+ * <tt>-2^2</tt> is <tt>-4</tt> and <tt>2^3^2</tt> is <tt>512</tt>. Numbers
+ * are written with an optional decimal point and exponent, such as
+ * <tt>1.5e-3</tt>. A name followed by a parenthesis is one of the functions
+ * <tt>sin, cos, tan, ctg, log, ln</tt>, their inverses
+ * <tt>arcsin, arccos, arctan, arcctg</tt> and <tt>exp</tt>, and any other
+ * name is a variable. The reciprocal value is written as <tt>1/x</tt>.
+ * <p>
+ * Subexpressions without variables are evaluated once upon compilation.
+ *
+ * @author Mario Bobic
+ */
+public final class ExpressionParser {
+
+    /** Functions by their names. */
+    private static final Map<String, UnaryFunction> FUNCTIONS = new HashMap<>();
+
+    static {
+        FUNCTIONS.put("sin", UnaryFunction.SIN);
+        FUNCTIONS.put("cos", UnaryFunction.COS);
+        FUNCTIONS.put("tan", UnaryFunction.TAN);
+        FUNCTIONS.put("ctg", UnaryFunction.CTG);
+        FUNCTIONS.put("log", UnaryFunction.LOG);
+        FUNCTIONS.put("ln", UnaryFunction.LN);
+        FUNCTIONS.put("arcsin", UnaryFunction.ARCSIN);
+        FUNCTIONS.put("arccos", UnaryFunction.ARCCOS);
+        FUNCTIONS.put("arctan", UnaryFunction.ARCTAN);
+        FUNCTIONS.put("arcctg", UnaryFunction.ARCCTG);
+        FUNCTIONS.put("exp", UnaryFunction.EXP);
+    }
+
+    /** The parsed text. */
+    private final String text;
+    /** Index of the next character. */
+    private int pos;
+    /** Names of the variables, in order of their first appearance. */
+    private final List<String> variables = new ArrayList<>();
+
+    /**
+     * Constructs an instance of {@code ExpressionParser} for the specified
+     * text.
+     *
+     * @param text text to be parsed
+     */
+    private ExpressionParser(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Parses the specified <tt>text</tt> and compiles it into an
+     * {@linkplain Expression}.
+     *
+     * @param text text of the expression
+     * @return the compiled expression
+     * @throws ExpressionSyntaxException if the text is not a valid expression
+     */
+    public static Expression parse(String text) {
+        ExpressionParser parser = new ExpressionParser(text);
+        Node root = parser.parseExpression();
+        parser.skipWhitespace();
+        if (parser.pos < text.length()) {
+            throw new ExpressionSyntaxException(
+                "Unexpected '" + text.charAt(parser.pos) + "'", parser.pos);
+        }
+        return new Expression(text, root, parser.variables);
+    }
+
+    /**
+     * Parses terms separated by additions and subtractions.
+     *
+     * @return the parsed node
+     */
+    private Node parseExpression() {
+        Node node = parseTerm();
+        while (true) {
+            if (accept('+')) {
+                node = binary(BinaryOperation.ADD, node, parseTerm());
+            } else if (accept('-')) {
+                node = binary(BinaryOperation.SUBTRACT, node, parseTerm());
+            } else {
+                return node;
+            }
+        }
+    }
+
+    /**
+     * Parses unary expressions separated by multiplications and divisions.
+     *
+     * @return the parsed node
+     */
+    private Node parseTerm() {
+        Node node = parseUnary();
+        while (true) {
+            if (accept('*')) {
+                node = binary(BinaryOperation.MULTIPLY, node, parseUnary());
+            } else if (accept('/')) {
+                node = binary(BinaryOperation.DIVIDE, node, parseUnary());
+            } else {
+                return node;
+            }
+        }
+    }
+
+    /**
+     * Parses a power preceded by any number of signs.
+     *
+     * @return the parsed node
+     */
+    private Node parseUnary() {
+        if (accept('-')) {
+            return unary(UnaryFunction.NEGATE, parseUnary());
+        }
+        if (accept('+')) {
+            return parseUnary();
+        }
+        return parsePower();
+    }
+
+    /**
+     * Parses a primary expression, optionally raised to a power.
+     *
+     * @return the parsed node
+     */
+    private Node parsePower() {
+        Node base = parsePrimary();
+        if (accept('^')) {
+            return binary(BinaryOperation.POWER, base, parseUnary());
+        }
+        return base;
+    }
+
+    /**
+     * Parses a number, a variable, a function call or an expression in
+     * parentheses.
+     *
+     * @return the parsed node
+     */
+    private Node parsePrimary() {
+        skipWhitespace();
+        if (pos == text.length()) {
+            throw new ExpressionSyntaxException("Unexpected end of expression", pos);
+        }
+
+        char c = text.charAt(pos);
+        if (accept('(')) {
+            Node node = parseExpression();
+            expect(')');
+            return node;
+        }
+        if (Character.isDigit(c) || c == '.') {
+            return parseNumber();
+        }
+        if (Character.isLetter(c)) {
+            int start = pos;
+            String name = parseName();
+            if (accept('(')) {
+                UnaryFunction function = FUNCTIONS.get(name);
+                if (function == null) {
+                    throw new ExpressionSyntaxException("Unknown function '" + name + "'", start);
+                }
+                Node argument = parseExpression();
+                expect(')');
+                return unary(function, argument);
+            }
+            return variable(name);
+        }
+        throw new ExpressionSyntaxException("Unexpected '" + c + "'", pos);
+    }
+
+    /**
+     * Parses a number with an optional decimal point and exponent.
+     *
+     * @return the parsed node
+     */
+    private Node parseNumber() {
+        int start = pos;
+        while (pos < text.length() && (Character.isDigit(text.charAt(pos)) || text.charAt(pos) == '.')) {
+            pos++;
+        }
+
+        // an exponent only if digits follow, otherwise e is a variable
+        if (pos < text.length() && (text.charAt(pos) == 'e' || text.charAt(pos) == 'E')) {
+            int exponent = pos + 1;
+            if (exponent < text.length() && (text.charAt(exponent) == '+' || text.charAt(exponent) == '-')) {
+                exponent++;
+            }
+            if (exponent < text.length() && Character.isDigit(text.charAt(exponent))) {
+                pos = exponent;
+                while (pos < text.length() && Character.isDigit(text.charAt(pos))) {
+                    pos++;
+                }
+            }
+        }
+
+        try {
+            return new ConstantNode(Double.parseDouble(text.substring(start, pos)));
+        } catch (NumberFormatException e) {
+            throw new ExpressionSyntaxException(
+                "Invalid number '" + text.substring(start, pos) + "'", start);
+        }
+    }
+
+    /**
+     * Parses a name of a function or a variable, which consists of letters,
+     * digits and underscores, and begins with a letter.
+     *
+     * @return the parsed name
+     */
+    private String parseName() {
+        int start = pos;
+        while (pos < text.length()
+                && (Character.isLetterOrDigit(text.charAt(pos)) || text.charAt(pos) == '_')) {
+            pos++;
+        }
+        return text.substring(start, pos);
+    }
+
+    /**
+     * Returns a node of the variable with the specified <tt>name</tt>,
+     * assigning it the next index if it appears for the first time.
+     *
+     * @param name name of the variable
+     * @return a node of the variable
+     */
+    private Node variable(String name) {
+        int index = variables.indexOf(name);
+        if (index < 0) {
+            index = variables.size();
+            variables.add(name);
+        }
+        return new VariableNode(index);
+    }
+
+    /**
+     * Returns a node which applies the <tt>function</tt> to the
+     * <tt>argument</tt>, evaluated upon compilation if it is constant.
+     *
+     * @param function the function
+     * @param argument argument of the function
+     * @return a node which applies the function
+     */
+    private static Node unary(UnaryFunction function, Node argument) {
+        return fold(new UnaryNode(function, argument));
+    }
+
+    /**
+     * Returns a node which applies the <tt>operation</tt> to the operands,
+     * evaluated upon compilation if it is constant.
+     *
+     * @param operation the operation
+     * @param left the first operand
+     * @param right the second operand
+     * @return a node which applies the operation
+     */
+    private static Node binary(BinaryOperation operation, Node left, Node right) {
+        return fold(new BinaryNode(operation, left, right));
+    }
+
+    /**
+     * Returns a {@linkplain ConstantNode} with the value of the specified
+     * <tt>node</tt> if it is constant, or the node itself otherwise.
+     *
+     * @param node node to be folded
+     * @return the folded node
+     */
+    private static Node fold(Node node) {
+        return node.isConstant() ? new ConstantNode(node.evaluate(null)) : node;
+    }
+
+    /**
+     * Skips the whitespace characters at the current position.
+     */
+    private void skipWhitespace() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    /**
+     * Skips the whitespace and the specified character <tt>c</tt> if it is
+     * next, and returns true if it was.
+     *
+     * @param c the expected character
+     * @return true if the character was skipped
+     */
+    private boolean accept(char c) {
+        skipWhitespace();
+        if (pos < text.length() && text.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Skips the whitespace and the specified character <tt>c</tt>, which must
+     * be next.
+     *
+     * @param c the expected character
+     * @throws ExpressionSyntaxException if another character is next
+     */
+    private void expect(char c) {
+        if (!accept(c)) {
+            throw new ExpressionSyntaxException("Expected '" + c + "'", pos);
+        }
+    }
+
+}
@@ -0,0 +1,37 @@
+package hr.fer.zemris.java.gui.calc.expression;
+
+/**
+ * Thrown by the {@linkplain ExpressionParser} to indicate that the parsed
+ * text is not a valid expression.
+ *
+ * @author Mario Bobic
+ */
+public class ExpressionSyntaxException extends IllegalArgumentException {
+    /** Serialization UID. */
+    private static final long serialVersionUID = 1L;
+
+    /** Index of the character where the error was found. */
+    private final int position;
+
+    /**
+     * Constructs an instance of {@code ExpressionSyntaxException} with the
+     * specified detail message and the position of the error.
+     *
+     * @param message the detail message
+     * @param position index of the character where the error was found
+     */
+    public ExpressionSyntaxException(String message, int position) {
+        super(message + " at position " + position);
+        this.position = position;
+    }
+
+    /**
+     * Returns the index of the character where the error was found.
+     *
+     * @return the position of the error
+     */
+    public int getPosition() {
+        return position;
+    }
+
+}
@@ -0,0 +1,28 @@
+package hr.fer.zemris.java.gui.calc.expression;
+
+/**
+ * This interface represents a node of a compiled {@linkplain Expression}
+ * tree, which evaluates to a <tt>double</tt> value.
+ *
+ * @author Mario Bobic
+ */
+interface Node {
+
+    /**
+     * Evaluates this node with the specified values of variables, indexed as
+     * the variables of the expression.
+     *
+     * @param variables values of the variables
+     * @return the value of this node
+     */
+    double evaluate(double[] variables);
+
+    /**
+     * Returns true if this node has the same value for all values of
+     * variables, so it can be replaced by a {@linkplain ConstantNode}.
+     *
+     * @return true if this node is constant
+     */
+    boolean isConstant();
+
+}
@@ -0,0 +1,40 @@
+package hr.fer.zemris.java.gui.calc.expression;
+
+import hr.fer.zemris.java.gui.calc.engine.UnaryFunction;
+
+/**
+ * A {@linkplain Node} which applies a {@linkplain UnaryFunction} to the value
+ * of its argument.
+ *
+ * @author Mario Bobic
+ */
+final class UnaryNode implements Node {
+
+    /** Function applied to the argument. */
+    private final UnaryFunction function;
+    /** Argument of the function. */
+    private final Node argument;
+
+    /**
+     * Constructs an instance of {@code UnaryNode} with the specified
+     * parameters.
+     *
+     * @param function function applied to the argument
+     * @param argument argument of the function
+     */
+    UnaryNode(UnaryFunction function, Node argument) {
+        this.function = function;
+        this.argument = argument;
+    }
+
+    @Override
+    public double evaluate(double[] variables) {
+        return function.apply(argument.evaluate(variables));
+    }
+
+    @Override
+    public boolean isConstant() {
+        return argument.isConstant();
+    }
+
+}
@@ -0,0 +1,34 @@
+package hr.fer.zemris.java.gui.calc.expression;
+
+/**
+ * A {@linkplain Node} whose value is the value of a variable, looked up by its
+ * index, which is resolved when the expression is compiled.
+ *
+ * @author Mario Bobic
+ */
+final class VariableNode implements Node {
+
+    /** Index of the variable. */
+    private final int index;
+
+    /**
+     * Constructs an instance of {@code VariableNode} with the specified
+     * index of the variable.
+     *
+     * @param index index of the variable
+     */
+    VariableNode(int index) {
+        this.index = index;
+    }
+
+    @Override
+    public double evaluate(double[] variables) {
+        return variables[index];
+    }
+
+    @Override
+    public boolean isConstant() {
+        return false;
+    }
+
+}
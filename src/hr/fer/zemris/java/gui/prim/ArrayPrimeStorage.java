@@ -0,0 +1,103 @@
+package hr.fer.zemris.java.gui.prim;
+
+import java.util.Arrays;
+
+/**
+ * This class implements the {@linkplain PrimeStorage} interface and stores
+ * prime numbers in a growable array of primitive <tt>int</tt> values, which
+ * takes up 4 bytes per prime.
+ * <p>
+ * Both the array and the size are volatile. The added primes are written to
+ * the array before the new size is published, and a grown array is published
+ * only after the primes have been copied to it, so readers that read the size
+ * first always find the primes below it.
+ *
+ * @author Mario Bobic
+ */
+public class ArrayPrimeStorage implements PrimeStorage {
+
+    /** Default initial capacity of the array of primes. */
+    private static final int DEFAULT_CAPACITY = 1024;
+    /** The largest capacity of an array that the virtual machine may allocate. */
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    /** Array of stored prime numbers. */
+    private volatile int[] primes;
+    /** Number of prime numbers stored in the array. */
+    private volatile int size;
+
+    /**
+     * Constructs an empty instance of {@code ArrayPrimeStorage} with the
+     * default initial capacity.
+     */
+    public ArrayPrimeStorage() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty instance of {@code ArrayPrimeStorage} with the
+     * specified initial <tt>capacity</tt>.
+     *
+     * @param capacity the initial capacity of the storage
+     * @throws IllegalArgumentException if <tt>capacity &lt; 0</tt>
+     */
+    public ArrayPrimeStorage(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException(
+                "Capacity must not be negative: " + capacity);
+        }
+        primes = new int[capacity];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int get(int index) {
+        // the size must be read before the array
+        int size = this.size;
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(
+                "Index: " + index + ", Size: " + size);
+        }
+        return primes[index];
+    }
+
+    @Override
+    public void add(int[] primes, int offset, int length) {
+        int size = this.size;
+        ensureCapacity(size + length);
+        System.arraycopy(primes, offset, this.primes, size, length);
+        this.size = size + length;
+    }
+
+    /**
+     * Increases the capacity of the array of primes, if necessary, to hold at
+     * least <tt>minCapacity</tt> elements. The capacity is increased by at
+     * least half of its current capacity, but not above the
+     * {@linkplain #MAX_CAPACITY}.
+     * <p>
+     * This method may only be called by the thread that adds primes.
+     *
+     * @param minCapacity the desired minimum capacity
+     * @throws OutOfMemoryError if the desired capacity exceeds the maximum
+     */
+    public void ensureCapacity(int minCapacity) {
+        int capacity = primes.length;
+        if (minCapacity <= capacity) {
+            return;
+        }
+        if (minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError("Array of primes is at maximum capacity.");
+        }
+
+        int newCapacity = capacity + (capacity >> 1);
+        if (newCapacity < 0 || newCapacity > MAX_CAPACITY) {
+            newCapacity = MAX_CAPACITY;
+        }
+        primes = Arrays.copyOf(primes, Math.max(newCapacity, minCapacity));
+    }
+
+}
@@ -0,0 +1,358 @@
+package hr.fer.zemris.java.gui.prim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
+/**
+ * This class generates prime numbers for a {@linkplain PrimListModel} in the
+ * background, off the Swing event dispatch thread.
+ * <p>
+ * A worker thread computes primes ahead in chunks of a fixed size and puts
+ * them into a bounded queue. The worker uses a {@linkplain
+ * PrimeSource#newInstance() new instance} of the {@linkplain PrimeSource} of
+ * the model, so the primes are generated the same way as by the model itself,
+ * for an example read from a table of primes. A Swing {@linkplain Timer}
+ * periodically drains the queue on the event dispatch thread and appends the
+ * drained primes to the model at once, so listeners are notified with a single
+ * event per tick and the number of primes published per second is bounded. If
+ * the event dispatch thread falls behind, the worker blocks on the full queue,
+ * which keeps the memory used for primes that were computed ahead bounded as
+ * well.
+ * <p>
+ * The generator is asked for primes in two independent ways, so it may be
+ * shared by several clients. It may be {@linkplain #start() started}, upon
+ * which it generates primes until it is {@linkplain #stop() stopped}, and it
+ * may be given a {@linkplain #startUpTo(int) target size} of the model, which
+ * is used for generating primes ahead of time by the
+ * {@linkplain PrefetchController}. The worker runs as long as either of them
+ * wants more primes, so stopping the continuous generation does not cancel a
+ * target that has not been reached, and reaching the target does not stop the
+ * continuous generation. Registered <tt>ChangeListeners</tt> are notified
+ * whenever the worker starts or stops, or the continuous generation is
+ * started or stopped.
+ * <p>
+ * All methods of this class, except {@linkplain #getModel()}, must be called
+ * on the event dispatch thread.
+ *
+ * @author Mario Bobic
+ */
+public class AsyncPrimeGenerator {
+
+    /** Default number of primes computed by the worker at once. */
+    public static final int DEFAULT_CHUNK_SIZE = 8 * 1024;
+    /** Default delay between two publications, expressed in milliseconds. */
+    public static final int DEFAULT_PUBLISH_INTERVAL = 40;
+
+    /** Maximum number of chunks published to the model in a single tick. */
+    private static final int CHUNKS_PER_TICK = 8;
+    /** Maximum number of chunks computed ahead by the worker. */
+    private static final int QUEUE_CAPACITY = 4 * CHUNKS_PER_TICK;
+
+    /** Model where the generated primes are published. */
+    private final PrimListModel model;
+    /** Number of primes computed by the worker at once. */
+    private final int chunkSize;
+
+    /** Queue of chunks computed by the worker, waiting to be published. */
+    private final BlockingQueue<int[]> chunks = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    /** Buffer where chunks are coalesced before they are published. */
+    private final int[] buffer;
+    /** Timer which publishes the computed chunks on the event dispatch thread. */
+    private final Timer timer;
+
+    /** Indicates that primes are generated until the generator is stopped. */
+    private boolean continuous;
+    /** Size of the model up to which primes are generated, if not continuous. */
+    private int targetSize;
+    /** Worker thread computing primes, <tt>null</tt> if not running. */
+    private Thread worker;
+    /** Indicates that the worker has run out of primes to compute. */
+    private volatile boolean exhausted;
+
+    /** List of change listeners that will be alerted on changes. */
+    private List<ChangeListener> listeners = new ArrayList<>();
+
+    /**
+     * Constructs an instance of {@code AsyncPrimeGenerator} which publishes
+     * primes to the specified <tt>model</tt> using the default chunk size and
+     * publication interval.
+     *
+     * @param model model where the generated primes are published
+     */
+    public AsyncPrimeGenerator(PrimListModel model) {
+        this(model, DEFAULT_CHUNK_SIZE, DEFAULT_PUBLISH_INTERVAL);
+    }
+
+    /**
+     * Constructs an instance of {@code AsyncPrimeGenerator} which publishes
+     * primes to the specified <tt>model</tt>, computing <tt>chunkSize</tt>
+     * primes at once and publishing them every <tt>publishInterval</tt>
+     * milliseconds.
+     *
+     * @param model model where the generated primes are published
+     * @param chunkSize number of primes computed by the worker at once
+     * @param publishInterval delay between two publications in milliseconds
+     * @throws IllegalArgumentException if <tt>chunkSize &lt; 1</tt> or
+     *         <tt>publishInterval &lt; 0</tt>
+     */
+    public AsyncPrimeGenerator(PrimListModel model, int chunkSize, int publishInterval) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException(
+                "Chunk size must be positive: " + chunkSize);
+        }
+        if (publishInterval < 0) {
+            throw new IllegalArgumentException(
+                "Publish interval must not be negative: " + publishInterval);
+        }
+
+        this.model = model;
+        this.chunkSize = chunkSize;
+
+        buffer = new int[chunkSize * CHUNKS_PER_TICK];
+        timer = new Timer(publishInterval, (e) -> publish());
+    }
+
+    /**
+     * Starts generating prime numbers following the last prime in the model
+     * continuously, until it runs out of primes or is {@linkplain #stop()
+     * stopped}. Does nothing if continuous generation is already started.
+     */
+    public void start() {
+        checkEventDispatchThread();
+        if (continuous) {
+            return;
+        }
+
+        continuous = true;
+        launch();
+        fireStateChanged();
+    }
+
+    /**
+     * Stops generating prime numbers continuously. The worker keeps running if
+     * the target size of the model has not been reached yet, otherwise primes
+     * that have been computed, but not yet published to the model are
+     * discarded. Does nothing if continuous generation is not started.
+     */
+    public void stop() {
+        checkEventDispatchThread();
+        if (!continuous) {
+            return;
+        }
+
+        continuous = false;
+        if (model.getSize() >= targetSize) {
+            halt();
+        }
+        fireStateChanged();
+    }
+
+    /**
+     * Generates prime numbers following the last prime in the model until the
+     * model contains at least <tt>targetSize</tt> elements. The target size is
+     * only raised, if it is less than the specified one. Does nothing if the
+     * model already contains that many elements.
+     *
+     * @param targetSize size of the model up to which primes are generated
+     */
+    public void startUpTo(int targetSize) {
+        checkEventDispatchThread();
+        this.targetSize = Math.max(this.targetSize, targetSize);
+        if (worker == null && model.getSize() < this.targetSize) {
+            launch();
+            fireStateChanged();
+        }
+    }
+
+    /**
+     * Removes the target size of the model. The worker is stopped, unless
+     * primes are generated continuously.
+     */
+    public void clearTarget() {
+        checkEventDispatchThread();
+        targetSize = 0;
+        if (!continuous && worker != null) {
+            halt();
+            fireStateChanged();
+        }
+    }
+
+    /**
+     * Returns the model where the generated primes are published.
+     *
+     * @return the model of this generator
+     */
+    public PrimListModel getModel() {
+        return model;
+    }
+
+    /**
+     * Returns true if the worker of this generator is running, either for the
+     * continuous generation or for the target size.
+     *
+     * @return true if this generator is running
+     */
+    public boolean isRunning() {
+        return worker != null;
+    }
+
+    /**
+     * Returns true if primes are generated continuously, as started by the
+     * {@linkplain #start()} method.
+     *
+     * @return true if primes are generated continuously
+     */
+    public boolean isContinuous() {
+        return continuous;
+    }
+
+    /**
+     * Adds the specified listener to the list of listeners that are notified
+     * when this generator starts or stops.
+     *
+     * @param l the listener to be added
+     */
+    public void addChangeListener(ChangeListener l) {
+        listeners = new ArrayList<>(listeners);
+        listeners.add(l);
+    }
+
+    /**
+     * Removes the specified listener from the list of listeners that are
+     * notified when this generator starts or stops.
+     *
+     * @param l the listener to be removed
+     */
+    public void removeChangeListener(ChangeListener l) {
+        listeners = new ArrayList<>(listeners);
+        listeners.remove(l);
+    }
+
+    /**
+     * Starts the worker thread and the timer, generating primes following the
+     * last prime in the model. Does nothing if the worker is already running.
+     */
+    private void launch() {
+        if (worker != null) {
+            return;
+        }
+
+        PrimeSource source = model.getSource().newInstance();
+        source.seek(model.getLast() + 1L);
+        exhausted = false;
+
+        worker = new Thread(() -> generate(source), "prime-generator");
+        worker.setDaemon(true);
+        worker.start();
+        timer.start();
+    }
+
+    /**
+     * Stops the worker thread and the timer. Primes that have been computed,
+     * but not yet published to the model are discarded. Does nothing if the
+     * worker is not running.
+     */
+    private void halt() {
+        if (worker == null) {
+            return;
+        }
+
+        worker.interrupt();
+        worker = null;
+        timer.stop();
+        chunks.clear();
+    }
+
+    /**
+     * Computes chunks of prime numbers using the specified <tt>source</tt> and
+     * puts them into the queue until the current thread is interrupted or the
+     * source runs out of primes. This method is run by the worker thread.
+     *
+     * @param source source which generates prime numbers
+     */
+    private void generate(PrimeSource source) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                int[] chunk = new int[chunkSize];
+                int count = source.next(chunk, 0, chunkSize, Integer.MAX_VALUE);
+
+                if (count > 0) {
+                    chunks.put(count < chunkSize ? Arrays.copyOf(chunk, count) : chunk);
+                }
+                if (count < chunkSize) {
+                    exhausted = true;
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            // stopped, the remaining chunks are discarded
+        }
+    }
+
+    /**
+     * Drains at most {@linkplain #CHUNKS_PER_TICK} chunks from the queue and
+     * appends them to the model at once, but not beyond the target size unless
+     * primes are generated continuously. Stops the worker if the target size
+     * has been reached and primes are not generated continuously, or if the
+     * worker has run out of primes and all of them have been published. This
+     * method is run by the timer on the event dispatch thread.
+     */
+    private void publish() {
+        int length = 0;
+        for (int i = 0; i < CHUNKS_PER_TICK; i++) {
+            int[] chunk = chunks.poll();
+            if (chunk == null) {
+                break;
+            }
+            System.arraycopy(chunk, 0, buffer, length, chunk.length);
+            length += chunk.length;
+        }
+
+        // the model may have grown beyond the target in the meantime
+        int allowed = continuous ? length : Math.max(0, targetSize - model.getSize());
+        model.append(buffer, 0, Math.min(length, allowed));
+
+        if (exhausted && chunks.isEmpty()) {
+            continuous = false;
+            targetSize = 0;
+            halt();
+            fireStateChanged();
+        } else if (!continuous && model.getSize() >= targetSize) {
+            halt();
+            fireStateChanged();
+        }
+    }
+
+    /**
+     * Notifies all registered listeners that the state of this generator has
+     * changed.
+     */
+    private void fireStateChanged() {
+        ChangeEvent event = new ChangeEvent(this);
+        for (ChangeListener l : listeners) {
+            l.stateChanged(event);
+        }
+    }
+
+    /**
+     * Throws an {@linkplain IllegalStateException} if the current thread is not
+     * the event dispatch thread.
+     *
+     * @throws IllegalStateException if not called on the event dispatch thread
+     */
+    private static void checkEventDispatchThread() {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            throw new IllegalStateException(
+                "Generator must be controlled from the event dispatch thread.");
+        }
+    }
+
+}
@@ -0,0 +1,322 @@
+package hr.fer.zemris.java.gui.prim;
+
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import javax.swing.ListModel;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+
+/**
+ * This class implements the {@linkplain ListModel} interface and represents
+ * a list model containing probable prime numbers of arbitrary size, starting
+ * from an arbitrary {@linkplain BigInteger}.
+ * <p>
+ * Candidates are taken from windows of odd numbers, from which the multiples
+ * of all primes less than {@linkplain #SMALL_PRIME_BOUND} are first crossed
+ * off by sieving, which removes about 90% of the candidates. The remaining
+ * candidates are tested by {@linkplain BigInteger#isProbablePrime(int)}
+ * concurrently on a {@linkplain ForkJoinPool}, while the results are
+ * collected in ascending order of the candidates, so the primes are added to
+ * the list in order. A few tests per thread are kept running ahead of the
+ * first candidate whose result is awaited, and their results are kept for
+ * the next call when enough primes have been found.
+ * <p>
+ * Any change to the contents or length of the data model will be reported to
+ * all of the <tt>ListDataListeners</tt>.
+ *
+ * @author Mario Bobic
+ */
+public class BigPrimListModel implements ListModel<BigInteger> {
+
+    /** Default certainty of the primality test, the error is at most 2<sup>-100</sup>. */
+    public static final int DEFAULT_CERTAINTY = 100;
+
+    /** Multiples of primes below this bound are crossed off in a window. */
+    private static final int SMALL_PRIME_BOUND = 1 << 16;
+    /** Odd prime numbers whose multiples are crossed off in a window. */
+    private static final int[] SMALL_PRIMES = smallPrimes(SMALL_PRIME_BOUND);
+    /** Number of odd candidates in a window. */
+    private static final int WINDOW_SIZE = 8 * 1024;
+    /** Number of tests in flight per thread of the pool. */
+    private static final int TESTS_PER_THREAD = 2;
+
+    /** Certainty of the primality test. */
+    private final int certainty;
+    /** Pool where the candidates are tested. */
+    private final ForkJoinPool pool;
+
+    /** List of generated probable primes. */
+    private final List<BigInteger> primes = new ArrayList<>();
+    /** List of list data listeners that will be alerted on events. */
+    private final List<ListDataListener> listeners = new CopyOnWriteArrayList<>();
+
+    /** Tests in flight, in ascending order of their candidates. */
+    private final Deque<Test> tests = new ArrayDeque<>();
+    /** Untested candidates that survived sieving, in ascending order. */
+    private final Deque<BigInteger> candidates = new ArrayDeque<>();
+    /** Flags of odd candidates divisible by a small prime in a window. */
+    private final boolean[] composite = new boolean[WINDOW_SIZE];
+    /** Odd number where the next window begins. */
+    private BigInteger nextLow;
+    /** Indicates that the only even prime, 2, is yet to be generated. */
+    private boolean twoPending;
+
+    /**
+     * Constructs an empty instance of {@code BigPrimListModel} which generates
+     * probable primes greater than or equal to <tt>from</tt>, with the default
+     * certainty and parallelism equal to the number of available processors.
+     *
+     * @param from the lowest number that may be generated
+     */
+    public BigPrimListModel(BigInteger from) {
+        this(from, DEFAULT_CERTAINTY, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs an empty instance of {@code BigPrimListModel} which generates
+     * probable primes greater than or equal to <tt>from</tt>, testing them
+     * with the specified <tt>certainty</tt> on <tt>parallelism</tt> threads.
+     *
+     * @param from the lowest number that may be generated
+     * @param certainty certainty of the primality test, the probability that
+     *        a generated number is composite does not exceed
+     *        <tt>2<sup>-certainty</sup></tt>
+     * @param parallelism number of candidates tested concurrently
+     * @throws IllegalArgumentException if <tt>certainty &lt; 1</tt> or
+     *         <tt>parallelism &lt; 1</tt>
+     */
+    public BigPrimListModel(BigInteger from, int certainty, int parallelism) {
+        if (certainty < 1) {
+            throw new IllegalArgumentException("Certainty must be positive: " + certainty);
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(
+                "Parallelism must be positive: " + parallelism);
+        }
+
+        this.certainty = certainty;
+        this.pool = new ForkJoinPool(parallelism);
+
+        BigInteger three = BigInteger.valueOf(3);
+        twoPending = from.compareTo(BigInteger.valueOf(2)) <= 0;
+        nextLow = from.compareTo(three) <= 0 ? three : from.setBit(0);
+    }
+
+    /**
+     * Returns an array of odd prime numbers less than the specified
+     * <tt>bound</tt>.
+     *
+     * @param bound the upper bound, exclusive
+     * @return an array of odd prime numbers below the bound
+     */
+    private static int[] smallPrimes(int bound) {
+        PrimeSieve sieve = new PrimeSieve(3);
+        int[] primes = new int[bound];
+        int count = sieve.next(primes, 0, primes.length, bound - 1);
+        return Arrays.copyOf(primes, count);
+    }
+
+    /**
+     * Returns the certainty of the primality test.
+     *
+     * @return the certainty of the primality test
+     */
+    public int getCertainty() {
+        return certainty;
+    }
+
+    /**
+     * Adds the next probable prime number to the list and notifies all
+     * registered listener of the event.
+     */
+    public void next() {
+        next(1);
+    }
+
+    /**
+     * Adds the next <tt>count</tt> probable prime numbers to the list and
+     * notifies all registered listeners with a single event covering the whole
+     * interval of added primes.
+     *
+     * @param count number of probable prime numbers to be added
+     * @throws IllegalArgumentException if <tt>count &lt; 0</tt>
+     * @throws IllegalStateException if the current thread is interrupted
+     *         while waiting for a test
+     * @throws java.util.concurrent.RejectedExecutionException if the pool
+     *         has been shut down
+     */
+    public void next(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative: " + count);
+        }
+
+        int index0 = primes.size();
+        if (twoPending && count > 0) {
+            twoPending = false;
+            primes.add(BigInteger.valueOf(2));
+        }
+
+        int inFlight = pool.getParallelism() * TESTS_PER_THREAD;
+        while (primes.size() - index0 < count) {
+            while (tests.size() < inFlight) {
+                BigInteger candidate = nextCandidate();
+                tests.addLast(new Test(candidate,
+                    pool.submit(() -> candidate.isProbablePrime(certainty))));
+            }
+
+            Test test = tests.peekFirst();
+            boolean prime;
+            try {
+                prime = test.result.get();
+            } catch (InterruptedException e) {
+                // the test stays in the queue and is awaited again
+                Thread.currentThread().interrupt();
+                fireIntervalAdded(index0);
+                throw new IllegalStateException("Interrupted while testing candidates.", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Primality test failed.", e.getCause());
+            }
+
+            tests.removeFirst();
+            if (prime) {
+                primes.add(test.candidate);
+            }
+        }
+
+        fireIntervalAdded(index0);
+    }
+
+    /**
+     * Notifies the <tt>listeners</tt> with a single {@linkplain ListDataEvent}
+     * covering the primes added from <tt>index0</tt> to the end of the list.
+     * Does nothing if no primes have been added.
+     *
+     * @param index0 index of the first added prime
+     */
+    private void fireIntervalAdded(int index0) {
+        int index1 = primes.size() - 1;
+        if (index1 >= index0) {
+            ListDataEvent event = new ListDataEvent(
+                this, ListDataEvent.INTERVAL_ADDED, index0, index1
+            );
+            for (ListDataListener l : listeners) {
+                l.intervalAdded(event);
+            }
+        }
+    }
+
+    /**
+     * Returns the next candidate that survived sieving, sieving new windows as
+     * needed.
+     *
+     * @return the next candidate
+     */
+    private BigInteger nextCandidate() {
+        while (candidates.isEmpty()) {
+            sieveNextWindow();
+        }
+        return candidates.removeFirst();
+    }
+
+    /**
+     * Crosses off the multiples of small primes in the window that begins
+     * where the previous one ended, and queues the remaining candidates.
+     */
+    private void sieveNextWindow() {
+        BigInteger low = nextLow;
+        nextLow = low.add(BigInteger.valueOf(2L * WINDOW_SIZE));
+
+        // small values of low may be equal to a small prime itself
+        boolean small = low.bitLength() < 32;
+        long lowValue = low.longValue();
+
+        Arrays.fill(composite, false);
+        for (int p : SMALL_PRIMES) {
+            long offset = (p - low.mod(BigInteger.valueOf(p)).longValue()) % p;
+            if ((offset & 1) != 0) {
+                offset += p;
+            }
+            if (small && lowValue + offset == p) {
+                offset += 2L * p;
+            }
+
+            for (long i = offset >>> 1; i < WINDOW_SIZE; i += p) {
+                composite[(int) i] = true;
+            }
+        }
+
+        for (int i = 0; i < WINDOW_SIZE; i++) {
+            if (!composite[i]) {
+                candidates.addLast(low.add(BigInteger.valueOf(2L * i)));
+            }
+        }
+    }
+
+    /**
+     * Initiates an orderly shutdown of the pool used for testing candidates.
+     * No more primes can be generated after this method has been called.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Override
+    public int getSize() {
+        return primes.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         (<tt>index &lt; 0 || index &gt;= getSize()</tt>)
+     */
+    @Override
+    public BigInteger getElementAt(int index) {
+        return primes.get(index);
+    }
+
+    @Override
+    public void addListDataListener(ListDataListener l) {
+        listeners.add(l);
+    }
+
+    @Override
+    public void removeListDataListener(ListDataListener l) {
+        listeners.remove(l);
+    }
+
+    /**
+     * A candidate whose primality test has been submitted to the pool.
+     *
+     * @author Mario Bobic
+     */
+    private static class Test {
+        /** The tested candidate. */
+        private final BigInteger candidate;
+        /** Result of the primality test. */
+        private final Future<Boolean> result;
+
+        /**
+         * Constructs an instance of {@code Test} with the specified
+         * parameters.
+         *
+         * @param candidate the tested candidate
+         * @param result result of the primality test
+         */
+        Test(BigInteger candidate, Future<Boolean> result) {
+            this.candidate = candidate;
+            this.result = result;
+        }
+    }
+
+}
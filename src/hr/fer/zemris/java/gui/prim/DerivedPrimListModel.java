@@ -0,0 +1,173 @@
+package hr.fer.zemris.java.gui.prim;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.swing.ListModel;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+
+/**
+ * This class is an abstract representation of a list model whose elements are
+ * derived from the prime numbers of a source {@linkplain PrimListModel}, for
+ * an example only the primes that satisfy some condition.
+ * <p>
+ * The model listens to the source and, for each <tt>INTERVAL_ADDED</tt> event,
+ * inspects only the added primes, so keeping it up to date takes time
+ * proportional to the number of added primes, no matter how large the source
+ * is. The derived elements are stored in an {@linkplain ArrayPrimeStorage}.
+ * Elements derived from a single source event are reported to all of the
+ * <tt>ListDataListeners</tt> as a single event, on the thread that generated
+ * the primes in the source.
+ * <p>
+ * A derived model stays registered to its source until it is
+ * {@linkplain #dispose() disposed}.
+ *
+ * @author Mario Bobic
+ */
+public abstract class DerivedPrimListModel implements ListModel<Integer> {
+
+    /** Model of prime numbers this model is derived from. */
+    private final PrimListModel source;
+    /** Listener registered to the source. */
+    private final ListDataListener sourceListener;
+
+    /** Storage of derived elements. */
+    private final ArrayPrimeStorage elements = new ArrayPrimeStorage();
+    /** Buffer for a single element that is added to the storage. */
+    private final int[] buffer = new int[1];
+    /** List of list data listeners that will be alerted on events. */
+    private final List<ListDataListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructs an instance of {@code DerivedPrimListModel} derived from the
+     * specified <tt>source</tt> model.
+     * <p>
+     * Subclasses must call the {@linkplain #attach()} method at the end of
+     * their constructor, after all fields used by the
+     * {@linkplain #accept(PrimeStorage, int)} method have been initialized.
+     *
+     * @param source model of prime numbers this model is derived from
+     */
+    protected DerivedPrimListModel(PrimListModel source) {
+        this.source = source;
+        this.sourceListener = new ListDataListener() {
+            @Override
+            public void intervalAdded(ListDataEvent e) {
+                update(e.getIndex0(), e.getIndex1());
+            }
+
+            @Override
+            public void intervalRemoved(ListDataEvent e) {
+            }
+
+            @Override
+            public void contentsChanged(ListDataEvent e) {
+            }
+        };
+    }
+
+    /**
+     * Derives the elements from the primes that are already in the source and
+     * starts listening to the source for added primes.
+     */
+    protected final void attach() {
+        source.addListDataListener(sourceListener);
+        update(0, source.getSize() - 1);
+    }
+
+    /**
+     * Stops listening to the source. The elements derived so far are kept,
+     * but no new elements are derived.
+     */
+    public void dispose() {
+        source.removeListDataListener(sourceListener);
+    }
+
+    /**
+     * Returns the model of prime numbers this model is derived from.
+     *
+     * @return the source model
+     */
+    public PrimListModel getSource() {
+        return source;
+    }
+
+    /**
+     * Inspects the primes of the source from the index <tt>index0</tt> to the
+     * index <tt>index1</tt>, inclusive, and notifies the listeners of the
+     * derived elements with a single event.
+     *
+     * @param index0 index of the first added prime
+     * @param index1 index of the last added prime
+     */
+    private void update(int index0, int index1) {
+        PrimeStorage primes = source.getStorage();
+        int first = elements.size();
+        for (int i = index0; i <= index1; i++) {
+            accept(primes, i);
+        }
+
+        int last = elements.size() - 1;
+        if (last < first) {
+            return;
+        }
+
+        ListDataEvent event = new ListDataEvent(
+            this, ListDataEvent.INTERVAL_ADDED, first, last
+        );
+        for (ListDataListener l : listeners) {
+            l.intervalAdded(event);
+        }
+    }
+
+    /**
+     * Inspects the element of the source at the specified <tt>index</tt> and
+     * adds the elements derived from it, if any, by the
+     * {@linkplain #add(int)} method. The elements before the index may be
+     * read as well, since they are never changed.
+     *
+     * @param primes storage of the source, where the value 1 is at index 0
+     * @param index index of the added element in the storage
+     */
+    protected abstract void accept(PrimeStorage primes, int index);
+
+    /**
+     * Adds the specified <tt>value</tt> to the end of this model. The
+     * listeners are notified after all added primes of the source have been
+     * inspected.
+     *
+     * @param value value to be added
+     */
+    protected final void add(int value) {
+        buffer[0] = value;
+        elements.add(buffer, 0, 1);
+    }
+
+    @Override
+    public int getSize() {
+        return elements.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         (<tt>index &lt; 0 || index &gt;= getSize()</tt>)
+     */
+    @Override
+    public Integer getElementAt(int index) {
+        return elements.get(index);
+    }
+
+    @Override
+    public void addListDataListener(ListDataListener l) {
+        listeners.add(l);
+    }
+
+    @Override
+    public void removeListDataListener(ListDataListener l) {
+        listeners.remove(l);
+    }
+
+}
@@ -0,0 +1,171 @@
+package hr.fer.zemris.java.gui.prim;
+
+import java.util.Arrays;
+
+/**
+ * This class implements the {@linkplain PrimeStorage} interface and stores
+ * prime numbers compressed as a stream of gaps between consecutive primes.
+ * <p>
+ * Gaps between consecutive odd primes are even, and every halved gap between
+ * primes less than 2<sup>32</sup> fits in a single unsigned byte. Every
+ * {@linkplain #CHECKPOINT_INTERVAL}-th prime is additionally stored as an
+ * absolute value in a sparse checkpoint index, so a prime at any index is
+ * obtained by decoding at most <tt>CHECKPOINT_INTERVAL - 1</tt> gaps after the
+ * nearest preceding checkpoint. This takes up about 1.06 bytes per prime,
+ * which is nearly 4 times less than an {@linkplain ArrayPrimeStorage}, at the
+ * cost of a short bounded decode on each random access.
+ * <p>
+ * The gaps following the numbers 1 and 2 are odd and are therefore stored
+ * without halving.
+ * <p>
+ * The arrays and the size are volatile. The gaps and checkpoints of the added
+ * primes are written before the new size is published, and grown arrays are
+ * published only after the old contents have been copied to them, so readers
+ * that read the size first always find the primes below it.
+ *
+ * @author Mario Bobic
+ */
+public class GapEncodedPrimeStorage implements PrimeStorage {
+
+    /** Number of primes between two absolute values in the checkpoint index. */
+    public static final int CHECKPOINT_INTERVAL = 64;
+    /** Binary logarithm of the checkpoint interval. */
+    private static final int CHECKPOINT_SHIFT = 6;
+
+    /** Default initial capacity of the gap stream. */
+    private static final int DEFAULT_CAPACITY = 1024;
+    /** The largest capacity of an array that the virtual machine may allocate. */
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    /** Encoded gaps, the gap at index <tt>i</tt> leads to the <tt>i</tt>-th prime. */
+    private volatile byte[] gaps;
+    /** Absolute values of every {@linkplain #CHECKPOINT_INTERVAL}-th prime. */
+    private volatile int[] checkpoints;
+    /** Number of stored prime numbers. */
+    private volatile int size;
+    /** The last stored prime number, used only by the adding thread. */
+    private int last;
+
+    /**
+     * Constructs an empty instance of {@code GapEncodedPrimeStorage}.
+     */
+    public GapEncodedPrimeStorage() {
+        gaps = new byte[DEFAULT_CAPACITY];
+        checkpoints = new int[DEFAULT_CAPACITY >> CHECKPOINT_SHIFT];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int get(int index) {
+        // the size must be read before the arrays
+        int size = this.size;
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(
+                "Index: " + index + ", Size: " + size);
+        }
+
+        int checkpoint = index >>> CHECKPOINT_SHIFT;
+        int value = checkpoints[checkpoint];
+        byte[] gaps = this.gaps;
+        int i = (checkpoint << CHECKPOINT_SHIFT) + 1;
+
+        // only the first block may contain gaps that are not halved
+        while (value < 3 && i <= index) {
+            value += gaps[i++] & 0xFF;
+        }
+
+        // independent of the value, so the additions can be pipelined
+        int sum = 0;
+        for (; i <= index; i++) {
+            sum += gaps[i] & 0xFF;
+        }
+        return value + (sum << 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the primes are not in ascending order
+     *         or if a gap between them can not be encoded
+     */
+    @Override
+    public void add(int[] primes, int offset, int length) {
+        int size = this.size;
+        ensureCapacity(size + length);
+        byte[] gaps = this.gaps;
+        int[] checkpoints = this.checkpoints;
+
+        try {
+            for (int i = offset, end = offset + length; i < end; i++) {
+                int prime = primes[i];
+                if ((size & (CHECKPOINT_INTERVAL - 1)) == 0) {
+                    checkpoints[size >>> CHECKPOINT_SHIFT] = prime;
+                } else {
+                    gaps[size] = encode(last, prime);
+                }
+                last = prime;
+                size++;
+            }
+        } finally {
+            // publish the primes added before a gap that can not be encoded
+            this.size = size;
+        }
+    }
+
+    /**
+     * Returns the encoded gap between the <tt>previous</tt> and the
+     * <tt>next</tt> prime number.
+     *
+     * @param previous the previous prime number
+     * @param next the next prime number
+     * @return the encoded gap
+     * @throws IllegalArgumentException if the gap can not be encoded
+     */
+    private static byte encode(int previous, int next) {
+        long gap = (long) next - previous;
+        if (previous >= 3) {
+            if ((gap & 1) != 0) {
+                throw new IllegalArgumentException(
+                    "Odd gap between " + previous + " and " + next);
+            }
+            gap >>= 1;
+        }
+
+        if (gap <= 0 || gap > 0xFF) {
+            throw new IllegalArgumentException(
+                "Gap between " + previous + " and " + next + " can not be encoded.");
+        }
+        return (byte) gap;
+    }
+
+    /**
+     * Increases the capacity of the gap stream and the checkpoint index, if
+     * necessary, to hold at least <tt>minCapacity</tt> primes.
+     *
+     * @param minCapacity the desired minimum capacity
+     * @throws OutOfMemoryError if the desired capacity exceeds the maximum
+     */
+    private void ensureCapacity(int minCapacity) {
+        int capacity = gaps.length;
+        if (minCapacity <= capacity) {
+            return;
+        }
+        if (minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError("Gap stream is at maximum capacity.");
+        }
+
+        int newCapacity = capacity + (capacity >> 1);
+        if (newCapacity < 0 || newCapacity > MAX_CAPACITY) {
+            newCapacity = MAX_CAPACITY;
+        }
+        newCapacity = Math.max(newCapacity, minCapacity);
+
+        gaps = Arrays.copyOf(gaps, newCapacity);
+        checkpoints = Arrays.copyOf(checkpoints, (newCapacity >> CHECKPOINT_SHIFT) + 1);
+    }
+
+}
@@ -0,0 +1,267 @@
+package hr.fer.zemris.java.gui.prim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import javax.swing.ListModel;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+
+/**
+ * This class implements the {@linkplain ListModel} interface and represents
+ * a list model containing <tt>long</tt> prime numbers, starting from an
+ * arbitrary 64-bit number.
+ * <p>
+ * Candidates are taken from windows of odd numbers, from which the multiples
+ * of small primes are first crossed off by sieving. Only the remaining
+ * candidates are tested by the deterministic {@linkplain MillerRabin} test,
+ * so browsing primes near any start point stays fast.
+ * <p>
+ * Any change to the contents or length of the data model will be reported to
+ * all of the <tt>ListDataListeners</tt>.
+ *
+ * @author Mario Bobic
+ */
+public class LongPrimListModel implements ListModel<Long> {
+
+    /** Number of odd candidates in a window. */
+    private static final int WINDOW_SIZE = 4 * 1024;
+    /** Odd prime numbers whose multiples are crossed off in a window. */
+    private static final int[] SMALL_PRIMES = smallPrimes(2048);
+
+    /** Initial capacity of the array of primes. */
+    private static final int INITIAL_CAPACITY = 1024;
+    /** The largest capacity of an array that the virtual machine may allocate. */
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    /** Array of generated prime numbers, stored as primitives. */
+    private long[] primes = new long[INITIAL_CAPACITY];
+    /** Number of prime numbers stored in the array. */
+    private int size;
+    /** List of list data listeners that will be alerted on events. */
+    private List<ListDataListener> listeners = new ArrayList<>();
+
+    /** Flags of odd candidates divisible by a small prime in the current window. */
+    private final boolean[] composite = new boolean[WINDOW_SIZE];
+    /** Odd number represented by the first flag of the current window. */
+    private long windowLow;
+    /** Number of valid flags in the current window. */
+    private int windowLength;
+    /** Index of the next flag in the current window to be inspected. */
+    private int cursor;
+    /** Odd number where the next window begins, negative if there is none. */
+    private long nextLow;
+    /** Indicates that the only even prime, 2, is yet to be generated. */
+    private boolean twoPending;
+
+    /**
+     * Constructs an empty instance of {@code LongPrimListModel} which
+     * generates prime numbers starting from <tt>2</tt>.
+     */
+    public LongPrimListModel() {
+        this(2);
+    }
+
+    /**
+     * Constructs an empty instance of {@code LongPrimListModel} which
+     * generates prime numbers greater than or equal to <tt>from</tt>.
+     *
+     * @param from the lowest number that may be generated
+     */
+    public LongPrimListModel(long from) {
+        twoPending = from <= 2;
+        nextLow = from <= 3 ? 3 : from | 1;
+    }
+
+    /**
+     * Returns an array of odd prime numbers less than the specified
+     * <tt>bound</tt>.
+     *
+     * @param bound the upper bound, exclusive
+     * @return an array of odd prime numbers below the bound
+     */
+    private static int[] smallPrimes(int bound) {
+        PrimeSieve sieve = new PrimeSieve(3);
+        int[] primes = new int[bound];
+        int count = sieve.next(primes, 0, primes.length, bound - 1);
+        return Arrays.copyOf(primes, count);
+    }
+
+    /**
+     * Adds the next prime number to the list and notifies all registered
+     * listener of the event.
+     *
+     * @throws NoSuchElementException if there are no more prime numbers in the
+     *         range of <tt>long</tt>
+     */
+    public void next() {
+        if (next(1) == 0) {
+            throw new NoSuchElementException("No more primes in range of long.");
+        }
+    }
+
+    /**
+     * Adds the next <tt>count</tt> prime numbers to the list and notifies all
+     * registered listeners with a single event covering the whole interval of
+     * added primes.
+     * <p>
+     * If there are less than <tt>count</tt> prime numbers left in the range of
+     * <tt>long</tt>, only the remaining primes are added.
+     *
+     * @param count number of prime numbers to be added
+     * @return the number of prime numbers actually added
+     * @throws IllegalArgumentException if <tt>count &lt; 0</tt>
+     */
+    public int next(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative: " + count);
+        }
+
+        // the array grows as primes are added, not by the requested count
+        int index0 = size;
+        if (twoPending && count > 0) {
+            twoPending = false;
+            add(2);
+        }
+        while (size - index0 < count && advance()) {
+            add(windowLow + 2L * cursor++);
+        }
+
+        int added = size - index0;
+        if (added > 0) {
+            ListDataEvent event = new ListDataEvent(
+                this, ListDataEvent.INTERVAL_ADDED, index0, size - 1
+            );
+            for (ListDataListener l : listeners) {
+                l.intervalAdded(event);
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Moves the cursor to the next prime number, sieving new windows as
+     * needed. Returns false if there are no more prime numbers in the range of
+     * <tt>long</tt>.
+     *
+     * @return true if the cursor points to a prime number
+     */
+    private boolean advance() {
+        while (true) {
+            while (cursor < windowLength) {
+                if (!composite[cursor] && MillerRabin.isPrime(windowLow + 2L * cursor)) {
+                    return true;
+                }
+                cursor++;
+            }
+
+            if (nextLow < 0) {
+                return false;
+            }
+            sieveNextWindow();
+        }
+    }
+
+    /**
+     * Crosses off the multiples of small primes in the window that begins
+     * where the current one ends.
+     */
+    private void sieveNextWindow() {
+        long low = nextLow;
+        int length = (int) Math.min(WINDOW_SIZE, (Long.MAX_VALUE - low) / 2 + 1);
+
+        windowLow = low;
+        windowLength = length;
+        cursor = 0;
+        // negative on overflow, meaning there is no next window
+        nextLow = low + 2L * length;
+
+        Arrays.fill(composite, 0, length, false);
+        for (int p : SMALL_PRIMES) {
+            long offset = Math.floorMod(-low, (long) p);
+            if ((offset & 1) != 0) {
+                offset += p;
+            }
+            // do not cross off the small prime itself
+            if (low + offset == p) {
+                offset += 2 * p;
+            }
+
+            for (long i = offset >>> 1; i < length; i += p) {
+                composite[(int) i] = true;
+            }
+        }
+    }
+
+    /**
+     * Adds the specified <tt>prime</tt> to the end of the array of primes,
+     * growing the array if it is full.
+     *
+     * @param prime prime number to be added
+     * @throws OutOfMemoryError if the array is at maximum capacity
+     */
+    private void add(long prime) {
+        if (size == primes.length) {
+            ensureCapacity(size + 1);
+        }
+        primes[size++] = prime;
+    }
+
+    /**
+     * Increases the capacity of the array of primes, if necessary, to hold at
+     * least <tt>minCapacity</tt> elements.
+     *
+     * @param minCapacity the desired minimum capacity
+     * @throws OutOfMemoryError if the desired capacity exceeds the maximum
+     */
+    private void ensureCapacity(int minCapacity) {
+        int capacity = primes.length;
+        if (minCapacity <= capacity) {
+            return;
+        }
+        if (minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError("Array of primes is at maximum capacity.");
+        }
+
+        int newCapacity = capacity + (capacity >> 1);
+        if (newCapacity < 0 || newCapacity > MAX_CAPACITY) {
+            newCapacity = MAX_CAPACITY;
+        }
+        primes = Arrays.copyOf(primes, Math.max(newCapacity, minCapacity));
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         (<tt>index &lt; 0 || index &gt;= getSize()</tt>)
+     */
+    @Override
+    public Long getElementAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(
+                "Index: " + index + ", Size: " + size);
+        }
+        return primes[index];
+    }
+
+    @Override
+    public void addListDataListener(ListDataListener l) {
+        listeners = new ArrayList<>(listeners);
+        listeners.add(l);
+    }
+
+    @Override
+    public void removeListDataListener(ListDataListener l) {
+        listeners = new ArrayList<>(listeners);
+        listeners.remove(l);
+    }
+
+}
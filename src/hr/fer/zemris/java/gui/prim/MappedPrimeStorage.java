@@ -0,0 +1,132 @@
+package hr.fer.zemris.java.gui.prim;
+
+import java.io.Closeable;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * This class implements the {@linkplain PrimeStorage} interface and reads prime
+ * numbers straight from a memory-mapped prime table file, without deserializing
+ * them first. Instances of this class are obtained by the
+ * {@linkplain PrimeTableFile#open(java.nio.file.Path)} method.
+ * <p>
+ * The mapped table is read-only. Prime numbers that are added to this storage
+ * are kept in memory, after the mapped ones, until they are saved to a file by
+ * the {@linkplain PrimeTableFile#save(PrimeStorage, java.nio.file.Path)}
+ * method.
+ * <p>
+ * The mapped table never changes and is read with absolute reads only, so
+ * concurrent readers are safe as long as the added primes are, which are
+ * published by an {@linkplain ArrayPrimeStorage}.
+ * <p>
+ * A mapped file can not be replaced on some platforms, such as Windows, until
+ * it is unmapped, so the storage may be {@linkplain #close() closed}, which
+ * releases the mapping at once instead of when the buffer is garbage
+ * collected. No thread may read the storage while or after it is closed.
+ *
+ * @author Mario Bobic
+ */
+public class MappedPrimeStorage implements PrimeStorage, Closeable {
+
+    /** Path to the mapped prime table file. */
+    private final Path path;
+    /** Mapping of the whole file, which is released upon closing. */
+    private final MappedByteBuffer mapping;
+    /** Mapped table of little-endian primes, positioned after the header. */
+    private final ByteBuffer table;
+    /** Number of prime numbers in the mapped table. */
+    private final int mappedSize;
+    /** Storage of prime numbers added after the mapped ones. */
+    private final ArrayPrimeStorage tail = new ArrayPrimeStorage();
+    /** Indicates that the mapping has been released. */
+    private volatile boolean closed;
+
+    /**
+     * Constructs an instance of {@code MappedPrimeStorage} which reads
+     * <tt>mappedSize</tt> prime numbers from the specified <tt>table</tt>,
+     * which is a part of the <tt>mapping</tt> of the file specified by the
+     * <tt>path</tt>.
+     *
+     * @param path path to the mapped prime table file
+     * @param mapping mapping of the whole file
+     * @param table mapped table of little-endian primes, starting at index 0
+     * @param mappedSize number of prime numbers in the mapped table
+     */
+    MappedPrimeStorage(Path path, MappedByteBuffer mapping, ByteBuffer table, int mappedSize) {
+        this.path = path;
+        this.mapping = mapping;
+        this.table = table;
+        this.mappedSize = mappedSize;
+    }
+
+    /**
+     * Returns the path to the mapped prime table file.
+     *
+     * @return the path to the mapped file
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the number of prime numbers read from the mapped table.
+     *
+     * @return the number of prime numbers in the mapped table
+     */
+    public int getMappedSize() {
+        return mappedSize;
+    }
+
+    @Override
+    public int size() {
+        return mappedSize + tail.size();
+    }
+
+    @Override
+    public int get(int index) {
+        if (index >= 0 && index < mappedSize) {
+            if (closed) {
+                throw new IllegalStateException("Prime table is closed: " + path);
+            }
+            return table.getInt(index << 2);
+        }
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(
+                "Index: " + index + ", Size: " + size());
+        }
+        return tail.get(index - mappedSize);
+    }
+
+    @Override
+    public void add(int[] primes, int offset, int length) {
+        tail.add(primes, offset, length);
+    }
+
+    /**
+     * Releases the mapping of the prime table file, so the file may be
+     * replaced. The mapped primes may not be read afterwards. If the mapping
+     * can not be released explicitly on this virtual machine, it is released
+     * when it is garbage collected. Does nothing if the storage is already
+     * closed.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafeClass.getMethod("invokeCleaner", ByteBuffer.class)
+                    .invoke(field.get(null), mapping);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // left to the garbage collector
+        }
+    }
+
+}
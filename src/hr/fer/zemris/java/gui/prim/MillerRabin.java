@@ -0,0 +1,84 @@
+package hr.fer.zemris.java.gui.prim;
+
+/**
+ * This class offers a deterministic Miller&ndash;Rabin primality test for all
+ * <tt>long</tt> values.
+ * <p>
+ * The test uses the set of seven bases found by Jim Sinclair, which is known
+ * to correctly classify every number less than 2<sup>64</sup>. Modular
+ * exponentiation is done in {@linkplain Montgomery} form.
+ *
+ * @author Mario Bobic
+ */
+public final class MillerRabin {
+
+    /** Bases that make the test deterministic for 64-bit numbers. */
+    private static final long[] BASES = {
+        2, 325, 9375, 28178, 450775, 9780504, 1795265022
+    };
+
+    /** Small prime numbers used for trial division before the test. */
+    private static final int[] SMALL_PRIMES = {
+        2, 3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37
+    };
+
+    /**
+     * Disable instantiation.
+     */
+    private MillerRabin() {
+    }
+
+    /**
+     * Returns true if the specified <tt>number</tt> is a prime number.
+     *
+     * @param number number that is tested for prime
+     * @return true if number is prime
+     */
+    public static boolean isPrime(long number) {
+        if (number < 2) {
+            return false;
+        }
+        for (int p : SMALL_PRIMES) {
+            if (number % p == 0) {
+                return number == p;
+            }
+        }
+        if (number < 41 * 41) {
+            return true;
+        }
+
+        long d = number - 1;
+        int s = Long.numberOfTrailingZeros(d);
+        d >>>= s;
+
+        Montgomery m = new Montgomery(number);
+        long one = m.one();
+        long minusOne = number - one;
+
+        for (long base : BASES) {
+            long a = base % number;
+            if (a == 0) {
+                continue;
+            }
+
+            long x = m.pow(m.toMontgomery(a), d);
+            if (x == one || x == minusOne) {
+                continue;
+            }
+
+            boolean composite = true;
+            for (int i = 1; i < s; i++) {
+                x = m.multiply(x, x);
+                if (x == minusOne) {
+                    composite = false;
+                    break;
+                }
+            }
+            if (composite) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,153 @@
+package hr.fer.zemris.java.gui.prim;
+
+/**
+ * This class implements modular arithmetic in Montgomery form for a fixed odd
+ * modulus <tt>n</tt>, where <tt>3 &lt;= n &lt;= Long.MAX_VALUE</tt>.
+ * <p>
+ * Numbers are represented as <tt>aR mod n</tt>, where <tt>R = 2<sup>64</sup></tt>.
+ * A product of two numbers in Montgomery form is reduced with a single 64-bit
+ * multiplication and a high-half multiplication by {@linkplain
+ * Math#multiplyHigh(long, long)} instead of a 128-bit division, which makes
+ * repeated modular multiplication, as in modular exponentiation, much faster.
+ *
+ * @author Mario Bobic
+ */
+final class Montgomery {
+
+    /** The modulus. */
+    private final long n;
+    /** The inverse of the modulus, such that <tt>n * inverse = 1 (mod R)</tt>. */
+    private final long inverse;
+    /** The number 1 in Montgomery form, <tt>R mod n</tt>. */
+    private final long one;
+    /** The value <tt>R<sup>2</sup> mod n</tt>, used for conversion. */
+    private final long r2;
+
+    /**
+     * Constructs an instance of {@code Montgomery} with the specified odd
+     * modulus <tt>n</tt>.
+     *
+     * @param n the modulus
+     * @throws IllegalArgumentException if <tt>n</tt> is even or less than 3
+     */
+    Montgomery(long n) {
+        if (n < 3 || (n & 1) == 0) {
+            throw new IllegalArgumentException("Modulus must be odd and at least 3: " + n);
+        }
+        this.n = n;
+
+        // Newton's iteration, each step doubles the number of correct bits
+        long inv = n;
+        for (int i = 0; i < 5; i++) {
+            inv *= 2 - n * inv;
+        }
+        this.inverse = inv;
+
+        this.one = Long.remainderUnsigned(-n, n);
+        long r = one;
+        for (int i = 0; i < 64; i++) {
+            r = add(r, r);
+        }
+        this.r2 = r;
+    }
+
+    /**
+     * Returns the modulus.
+     *
+     * @return the modulus
+     */
+    long modulus() {
+        return n;
+    }
+
+    /**
+     * Returns the number 1 in Montgomery form.
+     *
+     * @return the number 1 in Montgomery form
+     */
+    long one() {
+        return one;
+    }
+
+    /**
+     * Converts the specified non-negative number <tt>a</tt> to Montgomery form.
+     *
+     * @param a a non-negative number
+     * @return the number in Montgomery form
+     */
+    long toMontgomery(long a) {
+        return multiply(a % n, r2);
+    }
+
+    /**
+     * Converts the specified number <tt>a</tt> from Montgomery form.
+     *
+     * @param a a number in Montgomery form
+     * @return the number in standard form
+     */
+    long fromMontgomery(long a) {
+        return reduce(0, a);
+    }
+
+    /**
+     * Returns the sum of two numbers modulo <tt>n</tt>. Both numbers must be
+     * less than <tt>n</tt>, and the same holds for both forms.
+     *
+     * @param a the first number
+     * @param b the second number
+     * @return <tt>(a + b) mod n</tt>
+     */
+    long add(long a, long b) {
+        long sum = a + b;
+        return Long.compareUnsigned(sum, n) >= 0 ? sum - n : sum;
+    }
+
+    /**
+     * Returns the product of two numbers in Montgomery form, also in
+     * Montgomery form.
+     *
+     * @param a the first number in Montgomery form
+     * @param b the second number in Montgomery form
+     * @return the product in Montgomery form
+     */
+    long multiply(long a, long b) {
+        return reduce(Math.multiplyHigh(a, b), a * b);
+    }
+
+    /**
+     * Returns the number <tt>base</tt> in Montgomery form raised to the
+     * power of the non-negative <tt>exponent</tt>, also in Montgomery form.
+     *
+     * @param base the base in Montgomery form
+     * @param exponent a non-negative exponent
+     * @return the power in Montgomery form
+     */
+    long pow(long base, long exponent) {
+        long result = one;
+        while (exponent != 0) {
+            if ((exponent & 1) != 0) {
+                result = multiply(result, base);
+            }
+            base = multiply(base, base);
+            exponent >>>= 1;
+        }
+        return result;
+    }
+
+    /**
+     * Returns <tt>T / R mod n</tt> for a 128-bit number <tt>T</tt> less than
+     * <tt>nR</tt>, given by its high and low 64 bits (Montgomery reduction).
+     *
+     * @param high the high 64 bits of <tt>T</tt>
+     * @param low the low 64 bits of <tt>T</tt>
+     * @return <tt>T / R mod n</tt>
+     */
+    private long reduce(long high, long low) {
+        long m = low * inverse;
+        // m * n has the same low 64 bits as T, so only the high bits remain
+        long mnHigh = Math.multiplyHigh(m, n) + ((m >> 63) & n);
+        long t = high - mnHigh;
+        return t < 0 ? t + n : t;
+    }
+
+}
@@ -0,0 +1,230 @@
+package hr.fer.zemris.java.gui.prim;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A parallel segmented Sieve of Eratosthenes which generates all prime numbers
+ * in a range <tt>[lo, hi)</tt>.
+ * <p>
+ * The range is split into independent segments of odd candidates, which are
+ * sieved concurrently on a {@linkplain ForkJoinPool} with the specified
+ * parallelism. Prime numbers of each segment are stored in a separate array,
+ * and the arrays are returned in ascending order of their segments, so they can
+ * be merged in order by simply concatenating them.
+ * <p>
+ * Numbers that can be sieved must be less than or equal to
+ * {@link Integer#MAX_VALUE}.
+ *
+ * @author Mario Bobic
+ */
+public class ParallelPrimeSieve {
+
+    /** Default number of odd candidates in a segment. */
+    public static final int DEFAULT_SEGMENT_SIZE = 4 * PrimeSieve.DEFAULT_SEGMENT_SIZE;
+
+    /** Pool where segments are sieved. */
+    private final ForkJoinPool pool;
+    /** Number of odd candidates in a segment. */
+    private final int segmentSize;
+
+    /**
+     * Constructs an instance of {@code ParallelPrimeSieve} with parallelism
+     * equal to the number of available processors and the default segment
+     * size.
+     */
+    public ParallelPrimeSieve() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Constructs an instance of {@code ParallelPrimeSieve} with the specified
+     * <tt>parallelism</tt> and <tt>segmentSize</tt>.
+     *
+     * @param parallelism number of segments that are sieved concurrently
+     * @param segmentSize number of odd candidates in a segment
+     * @throws IllegalArgumentException if <tt>parallelism &lt; 1</tt> or
+     *         <tt>segmentSize &lt; 1</tt>
+     */
+    public ParallelPrimeSieve(int parallelism, int segmentSize) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(
+                "Parallelism must be positive: " + parallelism);
+        }
+        if (segmentSize < 1) {
+            throw new IllegalArgumentException(
+                "Segment size must be positive: " + segmentSize);
+        }
+
+        this.pool = new ForkJoinPool(parallelism);
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Returns the number of segments that are sieved concurrently.
+     *
+     * @return the parallelism of this sieve
+     */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Returns the number of odd candidates in a segment.
+     *
+     * @return the number of odd candidates in a segment
+     */
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * Returns an array of all prime numbers in range <tt>[lo, hi)</tt>, in
+     * ascending order.
+     *
+     * @param lo the lower bound of the range, inclusive
+     * @param hi the upper bound of the range, exclusive
+     * @return an array of prime numbers in the specified range
+     * @throws IllegalArgumentException if the range is invalid
+     */
+    public int[] primes(long lo, long hi) {
+        int[][] segments = sieve(lo, hi);
+
+        long total = 0;
+        for (int[] segment : segments) {
+            total += segment.length;
+        }
+
+        int[] primes = new int[Math.toIntExact(total)];
+        int offset = 0;
+        for (int[] segment : segments) {
+            System.arraycopy(segment, 0, primes, offset, segment.length);
+            offset += segment.length;
+        }
+        return primes;
+    }
+
+    /**
+     * Sieves all numbers in range <tt>[lo, hi)</tt> and returns the prime
+     * numbers found, split into arrays by segments. The arrays are in
+     * ascending order, and so are the primes in each array.
+     *
+     * @param lo the lower bound of the range, inclusive
+     * @param hi the upper bound of the range, exclusive
+     * @return arrays of prime numbers in the specified range, by segments
+     * @throws IllegalArgumentException if the range is invalid
+     */
+    int[][] sieve(long lo, long hi) {
+        if (lo < 0 || lo > hi || hi > PrimeSieve.LIMIT) {
+            throw new IllegalArgumentException(
+                "Invalid range: [" + lo + ", " + hi + ")");
+        }
+
+        boolean containsTwo = lo <= 2 && hi > 2;
+        long low = Math.max(lo | 1, 3);
+        long odds = hi > low ? (hi - low + 1) / 2 : 0;
+        int count = Math.toIntExact((odds + segmentSize - 1) / segmentSize);
+
+        int[][] segments = new int[count + 1][];
+        segments[0] = containsTwo ? new int[] {2} : new int[0];
+        if (count > 0) {
+            pool.invoke(new SegmentTask(segments, low, odds, 0, count));
+        }
+        return segments;
+    }
+
+    /**
+     * Initiates an orderly shutdown of the pool used by this sieve. The sieve
+     * can not be used after this method has been called.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * A task which sieves a range of segments, recursively splitting the range
+     * in halves until a single segment remains.
+     *
+     * @author Mario Bobic
+     */
+    private class SegmentTask extends RecursiveAction {
+        /** Serialization UID. */
+        private static final long serialVersionUID = 1L;
+
+        /** Arrays of primes by segments, the first one is reserved for 2. */
+        private final int[][] segments;
+        /** The odd number where the first segment begins. */
+        private final long low;
+        /** Total number of odd candidates in all segments. */
+        private final long odds;
+        /** Index of the first segment of this task, inclusive. */
+        private final int from;
+        /** Index of the last segment of this task, exclusive. */
+        private final int to;
+
+        /**
+         * Constructs an instance of {@code SegmentTask} which sieves segments
+         * with indexes in range <tt>[from, to)</tt>.
+         *
+         * @param segments arrays of primes by segments
+         * @param low the odd number where the first segment begins
+         * @param odds total number of odd candidates in all segments
+         * @param from index of the first segment, inclusive
+         * @param to index of the last segment, exclusive
+         */
+        public SegmentTask(int[][] segments, long low, long odds, int from, int to) {
+            this.segments = segments;
+            this.low = low;
+            this.odds = odds;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                segments[from + 1] = sieveSegment(from);
+                return;
+            }
+
+            int mid = (from + to) >>> 1;
+            invokeAll(
+                new SegmentTask(segments, low, odds, from, mid),
+                new SegmentTask(segments, low, odds, mid, to)
+            );
+        }
+
+        /**
+         * Sieves the segment with the specified <tt>index</tt> and returns an
+         * array of prime numbers found in it.
+         *
+         * @param index index of the segment
+         * @return an array of prime numbers in the segment
+         */
+        private int[] sieveSegment(int index) {
+            long first = (long) index * segmentSize;
+            int length = (int) Math.min(segmentSize, odds - first);
+            long segmentLow = low + 2 * first;
+
+            boolean[] composite = new boolean[length];
+            PrimeSieve.sieveSegment(segmentLow, length, composite);
+
+            int count = 0;
+            for (int i = 0; i < length; i++) {
+                if (!composite[i]) {
+                    count++;
+                }
+            }
+
+            int[] primes = new int[count];
+            count = 0;
+            for (int i = 0; i < length; i++) {
+                if (!composite[i]) {
+                    primes[count++] = (int) (segmentLow + 2L * i);
+                }
+            }
+            return primes;
+        }
+    }
+
+}
@@ -0,0 +1,149 @@
+package hr.fer.zemris.java.gui.prim;
+
+import javax.swing.JList;
+import javax.swing.JScrollPane;
+import javax.swing.JViewport;
+
+/**
+ * This class generates prime numbers for a {@linkplain PrimListModel} ahead of
+ * time, as the lists showing the model are scrolled towards its end.
+ * <p>
+ * The controller watches the viewports of scroll panes with <tt>JLists</tt> of
+ * the model. Whenever a viewport changes and fewer than a cushion of primes
+ * are left after the last visible one, an {@linkplain AsyncPrimeGenerator} is
+ * started in the background to generate primes up to two cushions past the
+ * last visible one. Primes are therefore ready before they are scrolled into
+ * view, and continuous scrolling never waits for them to be generated on the
+ * event dispatch thread.
+ * <p>
+ * The controller may share its generator with other controls, such as a
+ * button which generates primes continuously, so that only one worker ever
+ * generates primes for the model. The controller only raises and clears the
+ * target size of the generator, so it never stops the continuous generation
+ * started by another control.
+ * <p>
+ * All methods of this class must be called on the event dispatch thread.
+ *
+ * @author Mario Bobic
+ */
+public class PrefetchController {
+
+    /** Default number of primes kept ready after the last visible one. */
+    public static final int DEFAULT_CUSHION = 4 * 1024;
+
+    /** Model of prime numbers shown in the watched lists. */
+    private final PrimListModel model;
+    /** Minimal number of primes kept ready after the last visible one. */
+    private final int cushion;
+    /** Generator which generates the primes ahead of time. */
+    private final AsyncPrimeGenerator generator;
+
+    /**
+     * Constructs an instance of {@code PrefetchController} for the specified
+     * <tt>model</tt> with the default cushion.
+     *
+     * @param model model of prime numbers shown in the watched lists
+     */
+    public PrefetchController(PrimListModel model) {
+        this(model, DEFAULT_CUSHION);
+    }
+
+    /**
+     * Constructs an instance of {@code PrefetchController} for the specified
+     * <tt>model</tt>, which keeps at least <tt>cushion</tt> primes ready after
+     * the last visible one.
+     *
+     * @param model model of prime numbers shown in the watched lists
+     * @param cushion number of primes kept ready after the last visible one
+     * @throws IllegalArgumentException if <tt>cushion &lt; 1</tt>
+     */
+    public PrefetchController(PrimListModel model, int cushion) {
+        this(new AsyncPrimeGenerator(model), cushion);
+    }
+
+    /**
+     * Constructs an instance of {@code PrefetchController} which generates
+     * primes ahead of time by the specified existing <tt>generator</tt>, for
+     * the model of the generator, with the default cushion.
+     *
+     * @param generator generator which generates the primes ahead of time
+     */
+    public PrefetchController(AsyncPrimeGenerator generator) {
+        this(generator, DEFAULT_CUSHION);
+    }
+
+    /**
+     * Constructs an instance of {@code PrefetchController} which generates
+     * primes ahead of time by the specified existing <tt>generator</tt>, for
+     * the model of the generator, keeping at least <tt>cushion</tt> primes
+     * ready after the last visible one.
+     *
+     * @param generator generator which generates the primes ahead of time
+     * @param cushion number of primes kept ready after the last visible one
+     * @throws IllegalArgumentException if <tt>cushion &lt; 1</tt>
+     */
+    public PrefetchController(AsyncPrimeGenerator generator, int cushion) {
+        if (cushion < 1) {
+            throw new IllegalArgumentException("Cushion must be positive: " + cushion);
+        }
+
+        this.model = generator.getModel();
+        this.cushion = cushion;
+        this.generator = generator;
+    }
+
+    /**
+     * Returns the number of primes kept ready after the last visible one.
+     *
+     * @return the cushion of this controller
+     */
+    public int getCushion() {
+        return cushion;
+    }
+
+    /**
+     * Starts watching the viewport of the specified <tt>scrollPane</tt>, which
+     * must show a <tt>JList</tt> of this controller's model.
+     *
+     * @param scrollPane scroll pane to be watched
+     * @throws IllegalArgumentException if the scroll pane does not show a
+     *         <tt>JList</tt> of the model
+     */
+    public void watch(JScrollPane scrollPane) {
+        JViewport viewport = scrollPane.getViewport();
+        if (!(viewport.getView() instanceof JList)
+                || ((JList<?>) viewport.getView()).getModel() != model) {
+            throw new IllegalArgumentException("Scroll pane must show a list of the model.");
+        }
+
+        JList<?> list = (JList<?>) viewport.getView();
+        viewport.addChangeListener((e) -> check(list));
+        check(list);
+    }
+
+    /**
+     * Stops generating the primes ahead of time, by clearing the target size
+     * of the generator. Generation is started again upon the next change of a
+     * watched viewport.
+     */
+    public void stop() {
+        generator.clearTarget();
+    }
+
+    /**
+     * Starts generating primes ahead of time if fewer than a cushion of primes
+     * are left after the last visible element of the specified <tt>list</tt>.
+     *
+     * @param list list whose visible elements are checked
+     */
+    private void check(JList<?> list) {
+        long lastVisible = Math.max(list.getLastVisibleIndex(), 0);
+        if (lastVisible + cushion < model.getSize()) {
+            return;
+        }
+
+        int target = (int) Math.min(lastVisible + 2L * cushion, Integer.MAX_VALUE);
+        generator.startUpTo(target);
+    }
+
+}
@@ -1,16 +1,40 @@
 package hr.fer.zemris.java.gui.prim;
 
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutionException;
+
+import javax.management.JMException;
 import javax.swing.*;
 
 /**
  * This class is a {@linkplain JFrame} which demonstrates the usage of
  * {@linkplain PrimListModel}. It creates two <tt>JList</tt> objects with a
- * single <tt>model</tt>, both with the same width and height, and a button that
- * generates next primes.
+ * single <tt>model</tt> and a third one with the twin primes derived from it by
+ * a {@linkplain TwinPrimeListModel}, all with the same width and height, a
+ * button that generates next primes, a toggle button that keeps generating
+ * primes in the background using an {@linkplain AsyncPrimeGenerator} and a
+ * {@linkplain PrimJumpPanel} that jumps to a prime by its index or value.
+ * <p>
+ * The first two lists are watched by a {@linkplain PrefetchController}, so
+ * scrolling towards their end generates the following primes ahead of time.
  * <p>
  * The frame is positioned in the middle and it takes up one third of the screen
  * width and one half of the screen height.
+ * <p>
+ * The program accepts an optional command-line argument: path to a prime table
+ * file. If the file exists, the list of primes is continued from the table,
+ * and upon closing the frame, the table is updated with the generated primes.
+ * The table is saved in the background while a progress dialog is shown, and
+ * a failure to save it is reported in a message dialog.
+ * <p>
+ * The metrics of the prime list model are registered as an MBean, so they can
+ * be observed by a JMX client such as JConsole.
  *
  * @author Mario Bobic
  */
@@ -18,46 +42,95 @@ public class PrimDemo extends JFrame {
     /** Serialization UID. */
     private static final long serialVersionUID = 1L;
 
+    /** Object name of the MBean with metrics of the prime list model. */
+    private static final String METRICS_NAME = "hr.fer.zemris.java.gui.prim:type=PrimListModel";
+
     /**
-     * Constructs and initializes this frame with GUI components.
+     * Constructs and initializes this frame with GUI components and an empty
+     * prime list model.
      */
     public PrimDemo() {
+        this(new PrimListModel());
+    }
+
+    /**
+     * Constructs and initializes this frame with GUI components, showing the
+     * specified prime list <tt>model</tt>.
+     *
+     * @param model model of prime numbers to be shown
+     */
+    public PrimDemo(PrimListModel model) {
         setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
         setTitle("PrimDemo");
 
         Dimension screen = Toolkit.getDefaultToolkit().getScreenSize();
         setSize(screen.width / 3, screen.height / 2);
 
-        initGUI();
+        initGUI(model);
 
         setLocationRelativeTo(null);
     }
 
     /**
      * Initializes the GUI by adding the <tt>BorderLayout</tt> manager to the
-     * content pane and adds two identical JLists to it.
+     * content pane and adds two identical JLists and a JList of twin primes
+     * to it.
+     * <p>
+     * All lists are given a prototype cell value, so they do not measure
+     * every element of the model when it grows.
+     *
+     * @param model model of prime numbers to be shown
      */
-    private void initGUI() {
+    private void initGUI(PrimListModel model) {
         Container cp = getContentPane();
         cp.setLayout(new BorderLayout());
 
-        PrimListModel model = new PrimListModel();
         JList<Integer> list1 = new JList<>(model);
         JList<Integer> list2 = new JList<>(model);
+        list1.setPrototypeCellValue(Integer.MAX_VALUE);
+        list2.setPrototypeCellValue(Integer.MAX_VALUE);
+
+        JList<Integer> twins = new JList<>(new TwinPrimeListModel(model));
+        twins.setPrototypeCellValue(Integer.MAX_VALUE);
 
         JButton nextBtn = new JButton("Next");
         nextBtn.addActionListener((e) -> {
             model.next();
         });
 
+        AsyncPrimeGenerator generator = new AsyncPrimeGenerator(model);
+        JToggleButton generateBtn = new JToggleButton("Generate");
+        generateBtn.addActionListener((e) -> {
+            if (generateBtn.isSelected()) {
+                generator.start();
+            } else {
+                generator.stop();
+            }
+        });
+        // the generator stops by itself when it runs out of primes
+        generator.addChangeListener((e) -> {
+            generateBtn.setSelected(generator.isContinuous());
+        });
+
         JPanel center = new JPanel(new GridLayout(1, 0));
         JPanel bottom = new JPanel(new BorderLayout());
 
-        center.add(new JScrollPane(list1));
-        center.add(new JScrollPane(list2));
+        JScrollPane scroll1 = new JScrollPane(list1);
+        JScrollPane scroll2 = new JScrollPane(list2);
+
+        // shares the generator, so a single worker generates for the model
+        PrefetchController prefetch = new PrefetchController(generator);
+        prefetch.watch(scroll1);
+        prefetch.watch(scroll2);
+
+        center.add(scroll1);
+        center.add(scroll2);
+        center.add(new JScrollPane(twins));
 
         bottom.add(nextBtn, BorderLayout.CENTER);
+        bottom.add(generateBtn, BorderLayout.LINE_END);
 
+        cp.add(new PrimJumpPanel(list1, model), BorderLayout.PAGE_START);
         cp.add(center, BorderLayout.CENTER);
         cp.add(bottom, BorderLayout.PAGE_END);
     }
@@ -65,11 +138,114 @@ public class PrimDemo extends JFrame {
     /**
      * Program entry point.
      *
-     * @param args not used in this program
+     * @param args optional path to a prime table file
      */
     public static void main(String[] args) {
+        if (args.length > 1) {
+            System.err.println("Expected at most one argument: Path to prime table.");
+            return;
+        }
+
+        Path path = args.length == 1 ? Paths.get(args[0]) : null;
+        PrimListModel model = loadModel(path);
+        try {
+            model.getMetrics().register(METRICS_NAME);
+        } catch (JMException e) {
+            System.err.println(e.getMessage());
+        }
+
         SwingUtilities.invokeLater(() -> {
-            new PrimDemo().setVisible(true);
+            PrimDemo demo = new PrimDemo(model);
+            if (path != null) {
+                demo.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+                demo.addWindowListener(new WindowAdapter() {
+                    @Override
+                    public void windowClosing(WindowEvent e) {
+                        demo.dispose();
+                        saveAndExit(model, path);
+                    }
+                });
+            }
+            demo.setVisible(true);
         });
     }
+
+    /**
+     * Returns a prime list model which continues the prime table from the
+     * file specified by the <tt>path</tt>. If the path is <tt>null</tt>, the
+     * file does not exist or can not be opened, an empty model is returned.
+     *
+     * @param path path to the prime table file, may be <tt>null</tt>
+     * @return a prime list model
+     */
+    private static PrimListModel loadModel(Path path) {
+        if (path == null || !Files.isRegularFile(path)) {
+            return new PrimListModel();
+        }
+
+        try {
+            return new PrimListModel(PrimeTableFile.open(path));
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            return new PrimListModel();
+        }
+    }
+
+    /**
+     * Saves the primes of the specified <tt>model</tt> to the prime table file
+     * specified by the <tt>path</tt>, unless the file already contains all of
+     * them, and exits the program.
+     * <p>
+     * The table is saved by a background {@linkplain SwingWorker} while a
+     * progress dialog is shown, so the event dispatch thread is not blocked.
+     * If the table can not be saved, the error is shown in a message dialog
+     * before exiting. The frame showing the model must be disposed first,
+     * since saving may release the mapping of the table that the model is
+     * read from.
+     *
+     * @param model model of prime numbers to be saved
+     * @param path path to the prime table file
+     */
+    private static void saveAndExit(PrimListModel model, Path path) {
+        PrimeStorage storage = model.getStorage();
+        if (storage instanceof MappedPrimeStorage
+                && ((MappedPrimeStorage) storage).getMappedSize() == storage.size()) {
+            System.exit(0);
+            return;
+        }
+
+        JProgressBar progress = new JProgressBar();
+        progress.setIndeterminate(true);
+
+        JDialog dialog = new JDialog((Frame) null, "PrimDemo");
+        dialog.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+        dialog.add(new JLabel("Saving primes to " + path), BorderLayout.PAGE_START);
+        dialog.add(progress, BorderLayout.CENTER);
+        dialog.pack();
+        dialog.setLocationRelativeTo(null);
+        dialog.setVisible(true);
+
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws IOException {
+                PrimeTableFile.save(storage, path);
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                dialog.dispose();
+                try {
+                    get();
+                } catch (ExecutionException e) {
+                    JOptionPane.showMessageDialog(null,
+                        "Could not save the prime table: " + e.getCause().getMessage(),
+                        "PrimDemo", JOptionPane.ERROR_MESSAGE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                System.exit(0);
+            }
+        }.execute();
+    }
 }
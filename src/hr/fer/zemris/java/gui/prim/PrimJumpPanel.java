@@ -0,0 +1,190 @@
+package hr.fer.zemris.java.gui.prim;
+
+import java.awt.BorderLayout;
+import java.awt.GridLayout;
+import java.util.concurrent.ExecutionException;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
+import javax.swing.SwingWorker;
+
+/**
+ * This class is a {@linkplain JPanel} which lets the user jump to a prime
+ * number in a <tt>JList</tt> by its index or by its value. Both questions are
+ * answered by a {@linkplain PrimeIndex}, so the answer is known even for primes
+ * that the list does not show yet.
+ * <p>
+ * If the found element is in the list, it is selected and scrolled into view.
+ * Otherwise only the answer is shown in the status label, without generating
+ * the primes before it.
+ * <p>
+ * Primes beyond the list are looked up by prime counting, which may take a
+ * while, so each lookup is done in a background {@linkplain SwingWorker} and
+ * the buttons are disabled until its answer is shown.
+ *
+ * @author Mario Bobic
+ */
+public class PrimJumpPanel extends JPanel {
+    /** Serialization UID. */
+    private static final long serialVersionUID = 1L;
+
+    /** List whose elements are jumped to. */
+    private final JList<Integer> list;
+    /** Index of prime numbers shown in the list. */
+    private final PrimeIndex index;
+
+    /** Text field for the index or the value. */
+    private final JTextField input = new JTextField(10);
+    /** Label that shows the result of the last jump. */
+    private final JLabel status = new JLabel(" ", JLabel.CENTER);
+    /** Button which jumps to the prime at the entered index. */
+    private final JButton toIndex = new JButton("Go to index");
+    /** Button which jumps to the entered prime. */
+    private final JButton toValue = new JButton("Go to value");
+
+    /** Worker that is currently looking up, <tt>null</tt> if there is none. */
+    private SwingWorker<Integer, Void> worker;
+
+    /**
+     * Constructs an instance of {@code PrimJumpPanel} which jumps to elements
+     * of the specified <tt>list</tt>, using the specified prime <tt>index</tt>.
+     *
+     * @param list list whose elements are jumped to
+     * @param index index of prime numbers shown in the list
+     */
+    public PrimJumpPanel(JList<Integer> list, PrimeIndex index) {
+        this.list = list;
+        this.index = index;
+
+        toIndex.addActionListener((e) -> jumpToIndex());
+        toValue.addActionListener((e) -> jumpToValue());
+
+        JPanel buttons = new JPanel(new GridLayout(1, 0));
+        buttons.add(toIndex);
+        buttons.add(toValue);
+
+        setLayout(new BorderLayout());
+        add(input, BorderLayout.CENTER);
+        add(buttons, BorderLayout.LINE_END);
+        add(status, BorderLayout.PAGE_END);
+    }
+
+    /**
+     * Jumps to the prime number at the index written in the text field.
+     */
+    private void jumpToIndex() {
+        Integer n = parseInput();
+        if (n == null) {
+            return;
+        }
+
+        lookUp(() -> index.primeAt(n), (prime) -> {
+            status.setText("Prime at index " + n + " is " + prime);
+            select(n);
+        });
+    }
+
+    /**
+     * Jumps to the prime number whose value is written in the text field.
+     */
+    private void jumpToValue() {
+        Integer value = parseInput();
+        if (value == null) {
+            return;
+        }
+
+        lookUp(() -> index.indexOf(value), (n) -> {
+            if (n < 0) {
+                status.setText(value + " is not in the list");
+                return;
+            }
+            status.setText("Index of " + value + " is " + n);
+            select(n);
+        });
+    }
+
+    /**
+     * Runs the specified <tt>lookup</tt> in a background worker and passes its
+     * answer to the <tt>result</tt> on the event dispatch thread. If the lookup
+     * fails, the message of its exception is shown in the status label
+     * instead. Does nothing if a lookup is already running.
+     *
+     * @param lookup lookup run in the background
+     * @param result consumer of the answer, run on the event dispatch thread
+     */
+    private void lookUp(IntSupplier lookup, IntConsumer result) {
+        if (worker != null) {
+            return;
+        }
+
+        worker = new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() {
+                return lookup.getAsInt();
+            }
+
+            @Override
+            protected void done() {
+                worker = null;
+                setButtonsEnabled(true);
+
+                try {
+                    result.accept(get());
+                } catch (ExecutionException e) {
+                    status.setText(e.getCause().getMessage());
+                } catch (InterruptedException e) {
+                    status.setText(e.getMessage());
+                }
+            }
+        };
+
+        status.setText("Searching...");
+        setButtonsEnabled(false);
+        worker.execute();
+    }
+
+    /**
+     * Enables or disables both buttons of this panel.
+     *
+     * @param enabled true to enable the buttons, false to disable them
+     */
+    private void setButtonsEnabled(boolean enabled) {
+        toIndex.setEnabled(enabled);
+        toValue.setEnabled(enabled);
+    }
+
+    /**
+     * Selects the element at the specified index of the list and scrolls it
+     * into view, if the list contains it.
+     *
+     * @param n index of the element
+     */
+    private void select(int n) {
+        if (n < list.getModel().getSize()) {
+            list.setSelectedIndex(n);
+            list.ensureIndexIsVisible(n);
+        }
+    }
+
+    /**
+     * Parses the number written in the text field, or shows an error message
+     * in the status label and returns <tt>null</tt> if it is not a number.
+     *
+     * @return the parsed number, or <tt>null</tt> if it is invalid
+     */
+    private Integer parseInput() {
+        String text = input.getText().trim();
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            status.setText("Invalid number: " + text);
+            return null;
+        }
+    }
+
+}
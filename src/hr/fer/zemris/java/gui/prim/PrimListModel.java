@@ -1,7 +1,8 @@
 package hr.fer.zemris.java.gui.prim;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.swing.ListModel;
 import javax.swing.event.ListDataEvent;
@@ -13,81 +14,367 @@ import javax.swing.event.ListDataListener;
  * <p>
  * Any change to the contents or length of the data model will be reported to
  * all of the <tt>ListDataListeners</tt>.
+ * <p>
+ * As a {@linkplain PrimeIndex}, this model also answers which prime is at an
+ * index and what is the index of a prime beyond the generated primes, using
+ * {@linkplain PrimeCounting} instead of generating all primes before it.
+ * <p>
+ * This model is append-only and may be shared between threads. Primes are
+ * added by a single producer thread, which calls the generating methods and on
+ * which the listeners are notified, while any number of other threads may
+ * read the model without locking. Added primes are published by their
+ * {@linkplain PrimeStorage} all at once, so a reader which observes a size
+ * from {@linkplain #getSize()} can read every element below it.
+ * <p>
+ * Primes are generated by a pluggable {@linkplain PrimeSource}, which is
+ * either given upon construction or selected by the {@linkplain PrimeSources}
+ * from a system property, and is pulled from in batches.
+ * <p>
+ * Each batch of added primes and each listener call is recorded in the
+ * {@linkplain PrimeMetrics} of this model, which can be read by a snapshot or
+ * through JMX.
  *
  * @author Mario Bobic
  */
-public class PrimListModel implements ListModel<Integer> {
+public class PrimListModel implements ListModel<Integer>, PrimeIndex {
+
+    /** Number of primes generated at once by the bulk methods. */
+    private static final int BUFFER_SIZE = 8 * 1024;
 
     /** Cached value of the last generated prime. */
-    private int last = 1;
-    /** List of generated prime numbers. */
-    private List<Integer> primes = new ArrayList<>();
+    private volatile int last;
+    /** Source which generates prime numbers following the last one. */
+    private final PrimeSource source;
+    /** Indicates that the source follows the last prime, false after primes
+     * have been appended from outside. */
+    private boolean positioned;
+    /** Storage of generated prime numbers. */
+    private final PrimeStorage primes;
+    /** Buffer where prime numbers are generated before they are stored. */
+    private final int[] buffer = new int[BUFFER_SIZE];
     /** List of list data listeners that will be alerted on events. */
-    private List<ListDataListener> listeners = new ArrayList<>();
+    private final List<ListDataListener> listeners = new CopyOnWriteArrayList<>();
+    /** Metrics of generation and listener dispatch. */
+    private final PrimeMetrics metrics = new PrimeMetrics();
 
     /**
      * Constructs an instance of {@code PrimListModel} with a single value in
      * the list of primes: 1.
      */
     public PrimListModel() {
-        primes.add(last);
+        this(new ArrayPrimeStorage());
     }
 
     /**
-     * Returns true if the specified <tt>number</tt> is a prime number.
-     * This method considers the first prime number to be 2.
+     * Constructs an instance of {@code PrimListModel} which continues the list
+     * of primes already contained in the specified <tt>storage</tt>, for an
+     * example one opened by the {@linkplain PrimeTableFile}. If the storage is
+     * empty, the value 1 is added to it first.
+     * <p>
+     * Primes are generated by the default source of the
+     * {@linkplain PrimeSources}.
      *
-     * @param number number that is tested for prime
-     * @return true if number is prime
+     * @param storage storage of prime numbers in ascending order
+     * @throws IllegalArgumentException if the source selected by the system
+     *         property does not exist
      */
-    private boolean isPrime(int number) {
-        if (number <= 1) {
-            return false;
-        }
+    public PrimListModel(PrimeStorage storage) {
+        this(storage, PrimeSources.getDefault());
+    }
 
-        // lowest value for checking for prime numbers
-        int numberSqrt = (int) Math.sqrt((double) number);
-        for (int i = 2; i <= numberSqrt; i++) {
-            if (number % i == 0) {
-                return false;
-            }
+    /**
+     * Constructs an instance of {@code PrimListModel} which continues the list
+     * of primes already contained in the specified <tt>storage</tt>, generating
+     * the following primes by the specified <tt>source</tt>. If the storage is
+     * empty, the value 1 is added to it first.
+     *
+     * @param storage storage of prime numbers in ascending order
+     * @param source source which generates the prime numbers
+     */
+    public PrimListModel(PrimeStorage storage, PrimeSource source) {
+        this.source = source;
+        primes = storage;
+        if (primes.size() == 0) {
+            buffer[0] = 1;
+            primes.add(buffer, 0, 1);
         }
-        return true;
+        last = primes.get(primes.size() - 1);
     }
 
     /**
      * Adds the next prime number to the list and notifies all registered
      * listener of the event.
+     * <p>
+     * Prime numbers are drawn from the {@linkplain PrimeSource} of this model,
+     * so the running time depends on the source. It is amortized constant for
+     * the default {@linkplain SievePrimeSource}.
+     *
+     * @throws NoSuchElementException if there are no more prime
+     *         numbers in the range of <tt>int</tt>
      */
     public void next() {
-        int i = last + 1;
+        long start = System.nanoTime();
+        int index0 = primes.size();
+        if (source().next(buffer, 0, 1, Integer.MAX_VALUE) == 0) {
+            throw new NoSuchElementException("No more primes in range of int.");
+        }
+        primes.add(buffer, 0, 1);
+        fireIntervalAdded(index0, start);
+    }
+
+    /**
+     * Adds the next <tt>count</tt> prime numbers to the list and notifies all
+     * registered listeners with a single event covering the whole interval of
+     * added primes.
+     * <p>
+     * If there are less than <tt>count</tt> prime numbers left in the range of
+     * <tt>int</tt>, only the remaining primes are added.
+     *
+     * @param count number of prime numbers to be added
+     * @return the number of prime numbers actually added
+     * @throws IllegalArgumentException if <tt>count &lt; 0</tt>
+     */
+    public int next(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative: " + count);
+        }
+
+        long start = System.nanoTime();
+        int index0 = primes.size();
+        int added = 0;
+        while (added < count) {
+            int stored = source().next(
+                buffer, 0, Math.min(count - added, BUFFER_SIZE), Integer.MAX_VALUE);
+            if (stored == 0) {
+                break;
+            }
+            primes.add(buffer, 0, stored);
+            added += stored;
+        }
+
+        fireIntervalAdded(index0, start);
+        return added;
+    }
 
-        while (!isPrime(i)) {
-            i++;
+    /**
+     * Adds all prime numbers less than or equal to the specified
+     * <tt>limit</tt> that are not yet in the list, and notifies all registered
+     * listeners with a single event covering the whole interval of added
+     * primes.
+     *
+     * @param limit the largest prime number that may be added
+     * @return the number of prime numbers actually added
+     */
+    public int nextUpTo(int limit) {
+        if (limit <= last) {
+            return 0;
+        }
+
+        long start = System.nanoTime();
+        int index0 = primes.size();
+        while (true) {
+            int stored = source().next(buffer, 0, BUFFER_SIZE, limit);
+            primes.add(buffer, 0, stored);
+            if (stored < BUFFER_SIZE) {
+                break;
+            }
+        }
+
+        fireIntervalAdded(index0, start);
+        return primes.size() - index0;
+    }
+
+    /**
+     * Adds all prime numbers less than or equal to the specified
+     * <tt>limit</tt> that are not yet in the list, sieving them concurrently
+     * with the specified <tt>parallelSieve</tt>. The primes are merged into
+     * the list in order and all registered listeners are notified with a
+     * single event covering the whole interval of added primes.
+     *
+     * @param limit the largest prime number that may be added
+     * @param parallelSieve sieve used for generating the primes
+     * @return the number of prime numbers actually added
+     */
+    public int nextUpTo(int limit, ParallelPrimeSieve parallelSieve) {
+        if (limit <= last) {
+            return 0;
+        }
+
+        long start = System.nanoTime();
+        int index0 = primes.size();
+        for (int[] segment : parallelSieve.sieve(last + 1L, limit + 1L)) {
+            primes.add(segment, 0, segment.length);
         }
 
-        add(i);
+        positioned = false;
+        fireIntervalAdded(index0, start);
+        return primes.size() - index0;
     }
 
     /**
-     * Adds the specified <tt>prime</tt> to the <tt>primes</tt> list, updates
-     * the <tt>last</tt> generated prime number and creates a
-     * {@linkplain ListDataEvent}, notifying the <tt>listeners</tt>.
+     * Appends prime numbers that were generated outside of this model, for an
+     * example by the {@linkplain AsyncPrimeGenerator}, and notifies all
+     * registered listeners with a single event covering the whole interval of
+     * added primes.
+     * <p>
+     * The specified primes must be in ascending order. Primes that are not
+     * greater than the last prime in the list are skipped, so this method may
+     * safely be called with primes that have already been generated by this
+     * model in the meantime.
      *
-     * @param prime prime number to be added
+     * @param primes array of prime numbers in ascending order
+     * @param offset index of the first prime to be appended
+     * @param length number of primes to be appended
+     * @return the number of prime numbers actually added
      */
-    private void add(int prime) {
-        primes.add(prime);
-        last = prime;
+    int append(int[] primes, int offset, int length) {
+        int end = offset + length;
+        while (offset < end && primes[offset] <= last) {
+            offset++;
+        }
+
+        int count = end - offset;
+        if (count == 0) {
+            return 0;
+        }
+
+        long start = System.nanoTime();
+        int index0 = this.primes.size();
+        this.primes.add(primes, offset, count);
+        positioned = false;
+        fireIntervalAdded(index0, start);
+        return count;
+    }
+
+    /**
+     * Returns the source which generates prime numbers following the last
+     * one, positioning it first if primes have been added by other means.
+     *
+     * @return the source which generates prime numbers following the last one
+     */
+    private PrimeSource source() {
+        if (!positioned) {
+            source.seek(last + 1L);
+            positioned = true;
+        }
+        return source;
+    }
+
+    /**
+     * Returns the source which generates the prime numbers of this model.
+     *
+     * @return the source of prime numbers
+     */
+    public PrimeSource getSource() {
+        return source;
+    }
+
+    /**
+     * Updates the <tt>last</tt> generated prime number after primes have been
+     * added to the storage, starting at <tt>index0</tt>, and notifies the
+     * <tt>listeners</tt> with a single {@linkplain ListDataEvent}. The batch
+     * and each listener call are recorded in the <tt>metrics</tt>. Does
+     * nothing if no primes have been added.
+     *
+     * @param index0 index of the first added prime
+     * @param start time when the batch started, by {@linkplain System#nanoTime()}
+     */
+    private void fireIntervalAdded(int index0, long start) {
+        int index1 = primes.size() - 1;
+        if (index1 < index0) {
+            return;
+        }
+        int previous = last;
+        last = primes.get(index1);
 
-        int index = getSize() - 1;
         ListDataEvent event = new ListDataEvent(
-            this, ListDataEvent.INTERVAL_ADDED, index, index
+            this, ListDataEvent.INTERVAL_ADDED, index0, index1
         );
 
         for (ListDataListener l : listeners) {
+            long dispatchStart = System.nanoTime();
             l.intervalAdded(event);
+            metrics.recordDispatch(System.nanoTime() - dispatchStart);
+        }
+
+        long candidates = ((long) last - previous + 1) >>> 1;
+        metrics.recordBatch(index1 - index0 + 1, candidates, System.nanoTime() - start);
+    }
+
+    /**
+     * Returns the metrics of prime generation and listener dispatch of this
+     * model.
+     *
+     * @return the metrics of this model
+     */
+    public PrimeMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the storage of prime numbers of this model.
+     *
+     * @return the storage of prime numbers
+     */
+    public PrimeStorage getStorage() {
+        return primes;
+    }
+
+    /**
+     * Returns the last (greatest) prime number in the list.
+     *
+     * @return the last prime number in the list
+     */
+    public int getLast() {
+        return last;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the prime at the <tt>index</tt> has not been generated yet, it is
+     * found by {@linkplain PrimeCounting#nthPrime(int)}.
+     */
+    @Override
+    public int primeAt(int index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("Index must not be negative: " + index);
+        }
+        if (index < primes.size()) {
+            return primes.get(index);
+        }
+        return PrimeCounting.nthPrime(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the <tt>value</tt> is greater than the last generated prime, its
+     * index is found by {@linkplain PrimeCounting#primePi(long)}.
+     */
+    @Override
+    public int indexOf(int value) {
+        if (value < 1) {
+            return -1;
+        }
+        if (value > last) {
+            return MillerRabin.isPrime(value) ? (int) PrimeCounting.primePi(value) : -1;
+        }
+
+        int low = 0;
+        int high = primes.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int prime = primes.get(mid);
+            if (prime < value) {
+                low = mid + 1;
+            } else if (prime > value) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
         }
+        return -1;
     }
 
     @Override
@@ -108,14 +395,14 @@ public class PrimListModel implements ListModel<Integer> {
 
     @Override
     public void addListDataListener(ListDataListener l) {
-        listeners = new ArrayList<>(listeners);
         listeners.add(l);
+        metrics.setListenerCount(listeners.size());
     }
 
     @Override
     public void removeListDataListener(ListDataListener l) {
-        listeners = new ArrayList<>(listeners);
         listeners.remove(l);
+        metrics.setListenerCount(listeners.size());
     }
 
 }
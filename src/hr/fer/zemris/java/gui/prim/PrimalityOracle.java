@@ -0,0 +1,131 @@
+package hr.fer.zemris.java.gui.prim;
+
+/**
+ * This class answers whether a number is prime by a single bit lookup for all
+ * numbers up to a bound, and by the deterministic {@linkplain MillerRabin} test
+ * above it.
+ * <p>
+ * Only the odd numbers are represented, one bit each, packed into an array of
+ * <tt>long</tt> values, where the bit <tt>i</tt> stands for the number
+ * <tt>2i + 1</tt>. This takes up one byte per 16 numbers, so the whole range
+ * of <tt>int</tt> fits in 128 MB. The bits are set either from the primes
+ * sieved by a {@linkplain PrimeSieve}, or from a prime table that has already
+ * been generated, for an example the {@linkplain PrimeStorage} of a
+ * {@linkplain PrimListModel}.
+ * <p>
+ * Instances of this class are immutable and may be shared between threads.
+ *
+ * @author Mario Bobic
+ */
+public final class PrimalityOracle {
+
+    /** Number of primes taken from the sieve at once. */
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    /** Bits of the odd numbers, set if the number is prime. */
+    private final long[] bits;
+    /** The largest number whose bit is in the bitset. */
+    private final int bound;
+
+    /**
+     * Constructs an instance of {@code PrimalityOracle} which answers by a
+     * bit lookup for all numbers less than or equal to the specified
+     * <tt>bound</tt>, sieving the primes up to it.
+     *
+     * @param bound the largest number answered by a bit lookup
+     * @throws IllegalArgumentException if <tt>bound &lt; 0</tt>
+     */
+    public PrimalityOracle(int bound) {
+        if (bound < 0) {
+            throw new IllegalArgumentException("Bound must not be negative: " + bound);
+        }
+
+        this.bound = bound;
+        this.bits = new long[bitsLength(bound)];
+
+        PrimeSieve sieve = new PrimeSieve(3);
+        int[] buffer = new int[BUFFER_SIZE];
+        while (true) {
+            int stored = sieve.next(buffer, 0, BUFFER_SIZE, bound);
+            for (int i = 0; i < stored; i++) {
+                set(buffer[i]);
+            }
+            if (stored < BUFFER_SIZE) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Constructs an instance of {@code PrimalityOracle} from the prime table
+     * in the specified <tt>storage</tt>, which must contain all prime numbers
+     * up to its last one in ascending order, such as the storage of a
+     * {@linkplain PrimListModel}. Numbers up to the last prime in the storage
+     * are answered by a bit lookup.
+     * <p>
+     * Primes added to the storage later are not reflected by the bitset, but
+     * they are still answered by the primality test.
+     *
+     * @param storage storage of all prime numbers up to the last one
+     */
+    public PrimalityOracle(PrimeStorage storage) {
+        int size = storage.size();
+        this.bound = size == 0 ? 0 : storage.get(size - 1);
+        this.bits = new long[bitsLength(bound)];
+
+        for (int i = 0; i < size; i++) {
+            int prime = storage.get(i);
+            if (prime > 2) {
+                set(prime);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of <tt>long</tt> values needed for the bits of all
+     * odd numbers up to the specified <tt>bound</tt>.
+     *
+     * @param bound the largest number in the bitset
+     * @return the length of the array of bits
+     */
+    private static int bitsLength(int bound) {
+        return (bound >>> 7) + 1;
+    }
+
+    /**
+     * Sets the bit of the specified odd <tt>prime</tt>.
+     *
+     * @param prime an odd prime number
+     */
+    private void set(int prime) {
+        bits[prime >>> 7] |= 1L << (prime >>> 1);
+    }
+
+    /**
+     * Returns the largest number which is answered by a bit lookup.
+     *
+     * @return the bound of the bitset
+     */
+    public int getBound() {
+        return bound;
+    }
+
+    /**
+     * Returns true if the specified <tt>number</tt> is a prime number. Numbers
+     * up to the {@linkplain #getBound() bound} are answered by a single bit
+     * lookup, and greater numbers by the {@linkplain MillerRabin} test.
+     *
+     * @param number number that is tested for prime
+     * @return true if number is prime
+     */
+    public boolean isPrime(long number) {
+        if (number <= bound) {
+            if ((number & 1) == 0) {
+                return number == 2;
+            }
+            return number > 0 && (bits[(int) (number >>> 7)] & (1L << (number >>> 1))) != 0;
+        }
+        return MillerRabin.isPrime(number);
+    }
+
+}
@@ -0,0 +1,144 @@
+package hr.fer.zemris.java.gui.prim;
+
+/**
+ * This class offers static methods for counting prime numbers and for finding
+ * the <tt>n</tt>-th prime number without generating all primes before it.
+ * <p>
+ * The prime-counting function <tt>&pi;(x)</tt> is computed by the
+ * Lucy_Hedgehog algorithm, a variant of the Legendre sieve which counts the
+ * primes up to every value of <tt>x / k</tt> in <tt>O(x<sup>3/4</sup>)</tt>
+ * time and <tt>O(x<sup>1/2</sup>)</tt> memory. The <tt>n</tt>-th prime number
+ * is found by counting the primes up to an estimate of it, and then sieving a
+ * bounded segment around the estimate.
+ *
+ * @author Mario Bobic
+ */
+public final class PrimeCounting {
+
+    /** Number of primes less than or equal to {@link Integer#MAX_VALUE}. */
+    public static final int MAX_INT_PRIMES = 105_097_565;
+
+    /** The first few primes, for which the estimate is not accurate. */
+    private static final int[] FIRST_PRIMES = {2, 3, 5, 7, 11, 13};
+
+    /**
+     * Disable instantiation.
+     */
+    private PrimeCounting() {
+    }
+
+    /**
+     * Returns the number of prime numbers less than or equal to the specified
+     * <tt>x</tt>, or <tt>0</tt> if <tt>x &lt; 2</tt>.
+     *
+     * @param x the upper bound, inclusive
+     * @return the number of primes up to <tt>x</tt>
+     * @throws IllegalArgumentException if <tt>x</tt> exceeds
+     *         <tt>10<sup>12</sup></tt>, where the algorithm becomes impractical
+     */
+    public static long primePi(long x) {
+        if (x < 2) {
+            return 0;
+        }
+        if (x > 1_000_000_000_000L) {
+            throw new IllegalArgumentException("Argument too large: " + x);
+        }
+
+        int r = (int) Math.sqrt((double) x);
+        while ((long) r * r > x) {
+            r--;
+        }
+        while ((long) (r + 1) * (r + 1) <= x) {
+            r++;
+        }
+
+        // small[v] counts the survivors up to v, large[i] up to x / i
+        long[] small = new long[r + 1];
+        long[] large = new long[r + 1];
+        for (int v = 1; v <= r; v++) {
+            small[v] = v - 1;
+            large[v] = x / v - 1;
+        }
+
+        for (int p = 2; p <= r; p++) {
+            if (small[p] == small[p - 1]) {
+                continue; // not a prime
+            }
+
+            long survivors = small[p - 1];
+            long square = (long) p * p;
+            int end = (int) Math.min(r, x / square);
+
+            for (int i = 1; i <= end; i++) {
+                long d = (long) i * p;
+                long count = d <= r ? large[(int) d] : small[(int) (x / d)];
+                large[i] -= count - survivors;
+            }
+            for (int v = r; v >= square; v--) {
+                small[v] -= small[v / p] - survivors;
+            }
+        }
+
+        return large[1];
+    }
+
+    /**
+     * Returns the <tt>n</tt>-th prime number, where the first prime number is
+     * <tt>2</tt>.
+     *
+     * @param n the ordinal number of the prime, starting from <tt>1</tt>
+     * @return the <tt>n</tt>-th prime number
+     * @throws IllegalArgumentException if <tt>n &lt; 1</tt> or if the
+     *         <tt>n</tt>-th prime is not in the range of <tt>int</tt>
+     */
+    public static int nthPrime(int n) {
+        if (n < 1 || n > MAX_INT_PRIMES) {
+            throw new IllegalArgumentException(
+                "Ordinal number must be in range 1-" + MAX_INT_PRIMES + ": " + n);
+        }
+        if (n <= FIRST_PRIMES.length) {
+            return FIRST_PRIMES[n - 1];
+        }
+
+        long estimate = Math.min(estimate(n), Integer.MAX_VALUE);
+        long count = primePi(estimate);
+
+        if (count < n) {
+            // the prime is above the estimate, sieve forward
+            PrimeSieve sieve = new PrimeSieve(estimate + 1);
+            int prime = 0;
+            for (long i = count; i < n; i++) {
+                prime = sieve.nextPrime();
+            }
+            return prime;
+        }
+
+        // the prime is at or below the estimate, sieve backward in windows
+        long behind = count - n;
+        long window = PrimeSieve.DEFAULT_SEGMENT_SIZE;
+        while (true) {
+            long low = Math.max(2, estimate - window + 1);
+            int[] primes = new int[(int) (estimate - low + 1)];
+            int found = new PrimeSieve(low).next(primes, 0, primes.length, (int) estimate);
+
+            if (found > behind) {
+                return primes[(int) (found - 1 - behind)];
+            }
+            window *= 2;
+        }
+    }
+
+    /**
+     * Returns an estimate of the <tt>n</tt>-th prime number, based on the
+     * asymptotic expansion <tt>n (ln n + ln ln n - 1 + (ln ln n - 2) / ln n)</tt>.
+     *
+     * @param n the ordinal number of the prime, at least 6
+     * @return an estimate of the <tt>n</tt>-th prime number
+     */
+    private static long estimate(int n) {
+        double ln = Math.log(n);
+        double lnln = Math.log(ln);
+        return (long) (n * (ln + lnln - 1 + (lnln - 2) / ln));
+    }
+
+}
@@ -0,0 +1,202 @@
+package hr.fer.zemris.java.gui.prim;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class exports prime numbers from a {@linkplain PrimeStorage} to a file,
+ * either as text or as raw binary values, for use by other programs.
+ * <p>
+ * Primes are streamed straight from the storage through a direct
+ * {@linkplain ByteBuffer} to a {@linkplain FileChannel}. The buffer is
+ * allocated once and reused for every export. Text is formatted two digits at
+ * a time into a reused byte array, which is copied to the buffer in bulk, so
+ * no objects are created per prime and the file is never held in memory.
+ * <p>
+ * The value 1, which the {@linkplain PrimListModel} keeps at the beginning of
+ * its storage, is not a prime number and is therefore not exported.
+ * <p>
+ * Instances of this class are not thread-safe, as they share a single buffer
+ * between exports.
+ *
+ * @author Mario Bobic
+ */
+public class PrimeExporter {
+
+    /** Default size of the buffer, expressed in bytes. */
+    public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+    /** Maximum number of bytes written per prime, 10 digits and a new line. */
+    private static final int MAX_ENTRY_SIZE = 11;
+
+    /**
+     * Formats in which the primes can be exported.
+     *
+     * @author Mario Bobic
+     */
+    public enum Format {
+        /** Decimal numbers in ASCII, each followed by a new line. */
+        TEXT,
+        /** Little-endian 32-bit integers, without a header. */
+        BINARY
+    }
+
+    /** ASCII digits of the numbers from 00 to 99, two bytes per number. */
+    private static final byte[] DIGIT_PAIRS = new byte[200];
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGIT_PAIRS[2 * i] = (byte) ('0' + i / 10);
+            DIGIT_PAIRS[2 * i + 1] = (byte) ('0' + i % 10);
+        }
+    }
+
+    /** Buffer reused for every export. */
+    private final ByteBuffer buffer;
+    /** Array where text is formatted before it is copied to the buffer in bulk. */
+    private final byte[] chunk;
+
+    /**
+     * Constructs an instance of {@code PrimeExporter} with a buffer of the
+     * default size.
+     */
+    public PrimeExporter() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs an instance of {@code PrimeExporter} with a buffer of the
+     * specified size.
+     *
+     * @param bufferSize size of the buffer, expressed in bytes
+     * @throws IllegalArgumentException if <tt>bufferSize</tt> is less than
+     *         the size of a single exported prime
+     */
+    public PrimeExporter(int bufferSize) {
+        if (bufferSize < MAX_ENTRY_SIZE) {
+            throw new IllegalArgumentException(
+                "Buffer size must be at least " + MAX_ENTRY_SIZE + ": " + bufferSize);
+        }
+        buffer = ByteBuffer.allocateDirect(bufferSize).order(ByteOrder.LITTLE_ENDIAN);
+        chunk = new byte[bufferSize];
+    }
+
+    /**
+     * Exports all prime numbers from the specified <tt>storage</tt> to the
+     * file specified by the <tt>path</tt> in the specified <tt>format</tt>.
+     * The file is created if it does not exist, or overwritten if it does.
+     * <p>
+     * Primes added to the storage while it is being exported are not
+     * exported.
+     *
+     * @param storage storage of primes to be exported
+     * @param path path to the file
+     * @param format format of the file
+     * @return the number of exported primes
+     * @throws IOException if an I/O error occurs
+     */
+    public long export(PrimeStorage storage, Path path, Format format) throws IOException {
+        int size = storage.size();
+        int from = size > 0 && storage.get(0) == 1 ? 1 : 0;
+
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            buffer.clear();
+            if (format == Format.TEXT) {
+                writeText(storage, from, size, channel);
+            } else {
+                writeBinary(storage, from, size, channel);
+            }
+            PrimeTableFile.writeFully(channel, buffer);
+        }
+        return size - from;
+    }
+
+    /**
+     * Writes the primes from the index <tt>from</tt> to the index
+     * <tt>to</tt> of the <tt>storage</tt> as decimal numbers, each followed
+     * by a new line.
+     *
+     * @param storage storage of primes to be written
+     * @param from index of the first prime, inclusive
+     * @param to index of the last prime, exclusive
+     * @param channel channel where the primes are written
+     * @throws IOException if an I/O error occurs
+     */
+    private void writeText(PrimeStorage storage, int from, int to, FileChannel channel)
+            throws IOException {
+        byte[] chunk = this.chunk;
+        int length = 0;
+        for (int i = from; i < to; i++) {
+            if (chunk.length - length < MAX_ENTRY_SIZE) {
+                buffer.put(chunk, 0, length);
+                PrimeTableFile.writeFully(channel, buffer);
+                length = 0;
+            }
+
+            int value = storage.get(i);
+            int end = length + digits(value);
+            int j = end;
+            // two digits at a time
+            while (value >= 100) {
+                int pair = (value % 100) << 1;
+                value /= 100;
+                chunk[--j] = DIGIT_PAIRS[pair + 1];
+                chunk[--j] = DIGIT_PAIRS[pair];
+            }
+            if (value >= 10) {
+                chunk[--j] = DIGIT_PAIRS[(value << 1) + 1];
+                chunk[--j] = DIGIT_PAIRS[value << 1];
+            } else {
+                chunk[--j] = (byte) ('0' + value);
+            }
+            chunk[end] = '\n';
+            length = end + 1;
+        }
+        buffer.put(chunk, 0, length);
+    }
+
+    /**
+     * Writes the primes from the index <tt>from</tt> to the index
+     * <tt>to</tt> of the <tt>storage</tt> as little-endian 32-bit integers.
+     *
+     * @param storage storage of primes to be written
+     * @param from index of the first prime, inclusive
+     * @param to index of the last prime, exclusive
+     * @param channel channel where the primes are written
+     * @throws IOException if an I/O error occurs
+     */
+    private void writeBinary(PrimeStorage storage, int from, int to, FileChannel channel)
+            throws IOException {
+        ByteBuffer buffer = this.buffer;
+        for (int i = from; i < to; i++) {
+            if (buffer.remaining() < Integer.BYTES) {
+                PrimeTableFile.writeFully(channel, buffer);
+            }
+            buffer.putInt(storage.get(i));
+        }
+    }
+
+    /**
+     * Returns the number of decimal digits of the specified non-negative
+     * <tt>value</tt>.
+     *
+     * @param value a non-negative value
+     * @return the number of decimal digits
+     */
+    private static int digits(int value) {
+        int digits = 1;
+        for (long limit = 10; limit <= value; limit *= 10) {
+            digits++;
+        }
+        return digits;
+    }
+
+}
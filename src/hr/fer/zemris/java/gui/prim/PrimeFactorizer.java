@@ -0,0 +1,272 @@
+package hr.fer.zemris.java.gui.prim;
+
+import java.util.Arrays;
+
+/**
+ * This class factors positive <tt>long</tt> numbers into prime factors.
+ * <p>
+ * Numbers up to a configurable bound are factored in <tt>O(log n)</tt> steps
+ * by a table of smallest prime factors, which is built by a linear sieve upon
+ * construction. Only the odd numbers are kept in the table, so it takes up
+ * 2 bytes per number up to the bound. Greater numbers are first divided by
+ * small primes, and the rest is split by Pollard's rho algorithm with Brent's
+ * cycle detection, with the modular arithmetic done in {@linkplain Montgomery}
+ * form, until all parts are proved prime by the {@linkplain MillerRabin} test
+ * or fall into the table.
+ * <p>
+ * Instances of this class are immutable and may be shared between threads.
+ *
+ * @author Mario Bobic
+ */
+public final class PrimeFactorizer {
+
+    /** Default largest number factored by the table. */
+    public static final int DEFAULT_BOUND = 1 << 22;
+
+    /** Primes up to this limit are divided out before Pollard's rho. */
+    private static final int TRIAL_LIMIT = 1024;
+    /** Number of products accumulated before a gcd in Pollard's rho. */
+    private static final int BATCH_SIZE = 128;
+
+    /** Smallest prime factors of odd numbers, <tt>2i + 1</tt> at index <tt>i</tt>. */
+    private final int[] smallestFactors;
+    /** The largest number factored by the table. */
+    private final int bound;
+    /** Prime numbers up to the {@linkplain #TRIAL_LIMIT}. */
+    private final int[] trialPrimes;
+
+    /**
+     * Constructs an instance of {@code PrimeFactorizer} with the default
+     * bound of the table.
+     */
+    public PrimeFactorizer() {
+        this(DEFAULT_BOUND);
+    }
+
+    /**
+     * Constructs an instance of {@code PrimeFactorizer} which factors numbers
+     * less than or equal to the specified <tt>bound</tt> by a table of
+     * smallest prime factors.
+     *
+     * @param bound the largest number factored by the table
+     * @throws IllegalArgumentException if <tt>bound &lt; 1</tt> or
+     *         <tt>bound = Integer.MAX_VALUE</tt>
+     */
+    public PrimeFactorizer(int bound) {
+        if (bound < 1 || bound == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid bound: " + bound);
+        }
+
+        this.bound = bound;
+        this.smallestFactors = new int[(bound >>> 1) + 1];
+        sieve();
+
+        PrimeSieve sieve = new PrimeSieve();
+        int[] primes = new int[TRIAL_LIMIT];
+        int count = sieve.next(primes, 0, primes.length, TRIAL_LIMIT);
+        this.trialPrimes = Arrays.copyOf(primes, count);
+    }
+
+    /**
+     * Fills the table of smallest prime factors by a linear sieve, in which
+     * every odd composite number is crossed off exactly once, by its smallest
+     * prime factor.
+     */
+    private void sieve() {
+        int[] spf = smallestFactors;
+        int[] primes = new int[64];
+        int count = 0;
+
+        for (int i = 3; i <= bound; i += 2) {
+            int factor = spf[i >>> 1];
+            if (factor == 0) {
+                factor = spf[i >>> 1] = i;
+                if (count == primes.length) {
+                    primes = Arrays.copyOf(primes, count + (count >> 1));
+                }
+                primes[count++] = i;
+            }
+
+            for (int j = 0; j < count; j++) {
+                int p = primes[j];
+                long product = (long) p * i;
+                if (p > factor || product > bound) {
+                    break;
+                }
+                spf[(int) (product >>> 1)] = p;
+            }
+        }
+    }
+
+    /**
+     * Returns the largest number factored by the table.
+     *
+     * @return the bound of the table
+     */
+    public int getBound() {
+        return bound;
+    }
+
+    /**
+     * Returns the prime factors of the specified <tt>number</tt> in ascending
+     * order, each repeated as many times as it divides the number. The number
+     * 1 has no prime factors, so an empty array is returned.
+     *
+     * @param number number to be factored
+     * @return an array of prime factors in ascending order
+     * @throws IllegalArgumentException if <tt>number &lt; 1</tt>
+     */
+    public long[] factor(long number) {
+        if (number < 1) {
+            throw new IllegalArgumentException("Number must be positive: " + number);
+        }
+
+        Factors factors = new Factors();
+        int twos = Long.numberOfTrailingZeros(number);
+        for (int i = 0; i < twos; i++) {
+            factors.add(2);
+        }
+        number >>>= twos;
+
+        if (number > bound) {
+            for (int i = 1; i < trialPrimes.length && number > bound; i++) {
+                int p = trialPrimes[i];
+                while (number % p == 0) {
+                    factors.add(p);
+                    number /= p;
+                }
+            }
+        }
+
+        factorOdd(number, factors);
+        return factors.toSortedArray();
+    }
+
+    /**
+     * Adds the prime factors of the specified odd <tt>number</tt> to the
+     * <tt>factors</tt>, using the table if the number is in it, and Pollard's
+     * rho algorithm otherwise.
+     *
+     * @param number an odd positive number to be factored
+     * @param factors prime factors found so far
+     */
+    private void factorOdd(long number, Factors factors) {
+        if (number <= bound) {
+            while (number > 1) {
+                int p = smallestFactors[(int) (number >>> 1)];
+                factors.add(p);
+                number /= p;
+            }
+            return;
+        }
+        if (MillerRabin.isPrime(number)) {
+            factors.add(number);
+            return;
+        }
+
+        long divisor = pollardRho(number);
+        factorOdd(divisor, factors);
+        factorOdd(number / divisor, factors);
+    }
+
+    /**
+     * Returns a non-trivial divisor of the specified odd composite
+     * <tt>number</tt>, found by Pollard's rho algorithm with Brent's cycle
+     * detection. Differences of the sequence are multiplied together in
+     * batches, so a single gcd is computed per {@linkplain #BATCH_SIZE}
+     * steps.
+     *
+     * @param number an odd composite number
+     * @return a divisor of the number, other than 1 and the number itself
+     */
+    private static long pollardRho(long number) {
+        Montgomery m = new Montgomery(number);
+
+        for (long c = 1; ; c++) {
+            long y = m.one();
+            long x = y;
+            long saved = y;
+            long product = m.one();
+            long divisor = 1;
+
+            for (int r = 1; divisor == 1; r <<= 1) {
+                x = y;
+                for (int i = 0; i < r; i++) {
+                    y = m.add(m.multiply(y, y), c);
+                }
+
+                for (int k = 0; k < r && divisor == 1; k += BATCH_SIZE) {
+                    saved = y;
+                    for (int i = 0, steps = Math.min(BATCH_SIZE, r - k); i < steps; i++) {
+                        y = m.add(m.multiply(y, y), c);
+                        product = m.multiply(product, Math.abs(x - y));
+                    }
+                    divisor = gcd(product, number);
+                }
+            }
+
+            if (divisor == number) {
+                // the batch overshot, repeat it one step at a time
+                do {
+                    saved = m.add(m.multiply(saved, saved), c);
+                    divisor = gcd(Math.abs(x - saved), number);
+                } while (divisor == 1);
+            }
+            if (divisor != number) {
+                return divisor;
+            }
+        }
+    }
+
+    /**
+     * Returns the greatest common divisor of two non-negative numbers.
+     *
+     * @param a the first number
+     * @param b the second number
+     * @return the greatest common divisor
+     */
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    /**
+     * A growable array of prime factors.
+     *
+     * @author Mario Bobic
+     */
+    private static class Factors {
+        /** Array of prime factors. */
+        private long[] elements = new long[16];
+        /** Number of prime factors in the array. */
+        private int size;
+
+        /**
+         * Adds the specified prime <tt>factor</tt>.
+         *
+         * @param factor prime factor to be added
+         */
+        void add(long factor) {
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, size * 2);
+            }
+            elements[size++] = factor;
+        }
+
+        /**
+         * Returns the prime factors in ascending order.
+         *
+         * @return an array of prime factors in ascending order
+         */
+        long[] toSortedArray() {
+            long[] array = Arrays.copyOf(elements, size);
+            Arrays.sort(array);
+            return array;
+        }
+    }
+
+}
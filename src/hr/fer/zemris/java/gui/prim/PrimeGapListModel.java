@@ -0,0 +1,55 @@
+package hr.fer.zemris.java.gui.prim;
+
+/**
+ * This class is a list model of prime numbers followed by a gap larger than
+ * a fixed number, derived from a {@linkplain PrimListModel}. Each gap is
+ * represented by the prime before it, so for the minimal gap of 6, the list
+ * begins with 89, since the next prime after it is 97.
+ *
+ * @author Mario Bobic
+ */
+public class PrimeGapListModel extends DerivedPrimListModel {
+
+    /** Gaps must be larger than this number. */
+    private final int minGap;
+
+    /**
+     * Constructs an instance of {@code PrimeGapListModel} derived from the
+     * specified <tt>source</tt> model, which contains the primes followed by
+     * a gap larger than <tt>minGap</tt>.
+     *
+     * @param source model of prime numbers this model is derived from
+     * @param minGap gaps must be larger than this number
+     * @throws IllegalArgumentException if <tt>minGap &lt; 0</tt>
+     */
+    public PrimeGapListModel(PrimListModel source, int minGap) {
+        super(source);
+        if (minGap < 0) {
+            throw new IllegalArgumentException("Gap must not be negative: " + minGap);
+        }
+        this.minGap = minGap;
+        attach();
+    }
+
+    /**
+     * Returns the number which the gaps must be larger than.
+     *
+     * @return the minimal gap, exclusive
+     */
+    public int getMinGap() {
+        return minGap;
+    }
+
+    @Override
+    protected void accept(PrimeStorage primes, int index) {
+        if (index < 2) {
+            return;
+        }
+
+        int previous = primes.get(index - 1);
+        if (primes.get(index) - previous > minGap) {
+            add(previous);
+        }
+    }
+
+}
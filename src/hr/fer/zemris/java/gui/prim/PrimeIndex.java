@@ -0,0 +1,41 @@
+package hr.fer.zemris.java.gui.prim;
+
+/**
+ * This interface represents a list of prime numbers that can be looked up by
+ * index and by value directly, without generating all primes before the one
+ * that is looked up.
+ * <p>
+ * The list begins with the value 1, so the element at index <tt>n</tt> is the
+ * <tt>n</tt>-th prime number, and the index of a prime <tt>p</tt> is the
+ * number of primes less than or equal to <tt>p</tt>.
+ * <p>
+ * Both methods must be thread-safe, since they may be called by a background
+ * worker, such as the one of the {@linkplain PrimJumpPanel}, while the list is
+ * read or extended on the event dispatch thread.
+ *
+ * @author Mario Bobic
+ */
+public interface PrimeIndex {
+
+    /**
+     * Returns the element of the list at the specified <tt>index</tt>, which is
+     * the <tt>index</tt>-th prime number, or 1 if the index is 0.
+     *
+     * @param index index of the element
+     * @return the element at the specified index
+     * @throws IllegalArgumentException if the element is out of range of the
+     *         list
+     */
+    int primeAt(int index);
+
+    /**
+     * Returns the index of the specified <tt>value</tt> in the list, or
+     * <tt>-1</tt> if the value is not a prime number (nor the value 1) or if
+     * it is out of range of the list.
+     *
+     * @param value value to be searched for
+     * @return the index of the value, or <tt>-1</tt>
+     */
+    int indexOf(int value);
+
+}
@@ -0,0 +1,173 @@
+package hr.fer.zemris.java.gui.prim;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * This class collects the generation and listener dispatch metrics of a
+ * {@linkplain PrimListModel}. The metrics are read either as a whole, by a
+ * {@linkplain #snapshot() snapshot}, or one by one through JMX, after the
+ * metrics have been {@linkplain #register(String) registered} as an MBean.
+ * <p>
+ * Recording is cheap enough to stay on at all times: each event updates a few
+ * atomic counters and a bucket of a histogram with fixed bounds, and allocates
+ * nothing. Only reading the metrics creates objects.
+ *
+ * @author Mario Bobic
+ */
+public class PrimeMetrics implements PrimeMetricsMBean {
+
+    /** Number of buckets of the dispatch latency histogram. */
+    public static final int HISTOGRAM_BUCKETS = 64;
+
+    /** Total number of added primes. */
+    private final AtomicLong primesGenerated = new AtomicLong();
+    /** Total number of tested odd candidates. */
+    private final AtomicLong candidatesTested = new AtomicLong();
+    /** Number of batches. */
+    private final AtomicLong batches = new AtomicLong();
+    /** Total time of all batches. */
+    private final AtomicLong batchTime = new AtomicLong();
+    /** The longest time of a batch. */
+    private final AtomicLong maxBatchTime = new AtomicLong();
+    /** Total number of listener calls. */
+    private final AtomicLong dispatches = new AtomicLong();
+    /** Total time of all listener calls. */
+    private final AtomicLong dispatchTime = new AtomicLong();
+    /** Latency histogram of listener calls, by powers of two. */
+    private final AtomicLongArray dispatchHistogram = new AtomicLongArray(HISTOGRAM_BUCKETS);
+    /** Number of registered listeners. */
+    private volatile int listenerCount;
+
+    /** Snapshot of the previous rate query through JMX. */
+    private PrimeMetricsSnapshot lastRateSnapshot = snapshot();
+
+    /**
+     * Records a batch of <tt>primes</tt> added to the model, which covered
+     * <tt>candidates</tt> odd numbers and took <tt>time</tt> nanoseconds.
+     *
+     * @param primes number of added primes
+     * @param candidates number of tested odd candidates
+     * @param time duration of the batch in nanoseconds
+     */
+    void recordBatch(int primes, long candidates, long time) {
+        primesGenerated.addAndGet(primes);
+        candidatesTested.addAndGet(candidates);
+        batches.incrementAndGet();
+        batchTime.addAndGet(time);
+        maxBatchTime.accumulateAndGet(time, Math::max);
+    }
+
+    /**
+     * Records a single <tt>intervalAdded</tt> call which took <tt>time</tt>
+     * nanoseconds.
+     *
+     * @param time duration of the call in nanoseconds
+     */
+    void recordDispatch(long time) {
+        dispatches.incrementAndGet();
+        dispatchTime.addAndGet(time);
+        int bucket = time <= 1 ? 0 : 63 - Long.numberOfLeadingZeros(time);
+        dispatchHistogram.incrementAndGet(bucket);
+    }
+
+    /**
+     * Sets the number of listeners registered to the model.
+     *
+     * @param count number of registered listeners
+     */
+    void setListenerCount(int count) {
+        listenerCount = count;
+    }
+
+    /**
+     * Returns a snapshot of the current values of all metrics. The values are
+     * read one by one, so they may be slightly inconsistent with each other
+     * while primes are being generated.
+     *
+     * @return a snapshot of the metrics
+     */
+    public PrimeMetricsSnapshot snapshot() {
+        long[] histogram = new long[HISTOGRAM_BUCKETS];
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            histogram[i] = dispatchHistogram.get(i);
+        }
+
+        return new PrimeMetricsSnapshot(System.nanoTime(),
+                primesGenerated.get(), candidatesTested.get(),
+                batches.get(), batchTime.get(), maxBatchTime.get(),
+                listenerCount, dispatches.get(), dispatchTime.get(), histogram);
+    }
+
+    /**
+     * Registers these metrics to the platform MBean server under the specified
+     * object <tt>name</tt>, for an example
+     * <tt>"hr.fer.zemris.java.gui.prim:type=PrimListModel"</tt>.
+     *
+     * @param name object name of the MBean
+     * @throws JMException if the name is invalid or the registration fails
+     */
+    public void register(String name) throws JMException {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(name));
+    }
+
+    @Override
+    public long getPrimesGenerated() {
+        return primesGenerated.get();
+    }
+
+    @Override
+    public synchronized double getPrimesPerSecond() {
+        PrimeMetricsSnapshot current = snapshot();
+        double rate = current.primesPerSecond(lastRateSnapshot);
+        lastRateSnapshot = current;
+        return rate;
+    }
+
+    @Override
+    public long getCandidatesTested() {
+        return candidatesTested.get();
+    }
+
+    @Override
+    public long getBatches() {
+        return batches.get();
+    }
+
+    @Override
+    public double getAverageBatchTime() {
+        long count = batches.get();
+        return count == 0 ? 0 : (double) batchTime.get() / count;
+    }
+
+    @Override
+    public long getMaxBatchTime() {
+        return maxBatchTime.get();
+    }
+
+    @Override
+    public int getListenerCount() {
+        return listenerCount;
+    }
+
+    @Override
+    public long getDispatches() {
+        return dispatches.get();
+    }
+
+    @Override
+    public double getAverageDispatchTime() {
+        long count = dispatches.get();
+        return count == 0 ? 0 : (double) dispatchTime.get() / count;
+    }
+
+    @Override
+    public long[] getDispatchHistogram() {
+        return snapshot().getDispatchHistogram();
+    }
+
+}
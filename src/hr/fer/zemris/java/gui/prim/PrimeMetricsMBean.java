@@ -0,0 +1,91 @@
+package hr.fer.zemris.java.gui.prim;
+
+/**
+ * The management interface of {@linkplain PrimeMetrics}, which exposes the
+ * generation and listener dispatch metrics of a {@linkplain PrimListModel}
+ * through JMX.
+ * <p>
+ * All durations are expressed in nanoseconds.
+ *
+ * @author Mario Bobic
+ */
+public interface PrimeMetricsMBean {
+
+    /**
+     * Returns the total number of primes added to the model.
+     *
+     * @return the number of added primes
+     */
+    long getPrimesGenerated();
+
+    /**
+     * Returns the number of primes added to the model per second since the
+     * previous call of this method, or since the metrics were created if this
+     * is the first call.
+     *
+     * @return the number of added primes per second
+     */
+    double getPrimesPerSecond();
+
+    /**
+     * Returns the total number of odd candidates covered by the added primes,
+     * that is, the odd numbers up to the last prime which were tested.
+     *
+     * @return the number of tested candidates
+     */
+    long getCandidatesTested();
+
+    /**
+     * Returns the number of batches, that is, calls which added primes to the
+     * model and fired a single event.
+     *
+     * @return the number of batches
+     */
+    long getBatches();
+
+    /**
+     * Returns the average time of a batch, including generation and dispatch.
+     *
+     * @return the average time of a batch
+     */
+    double getAverageBatchTime();
+
+    /**
+     * Returns the longest time of a batch, including generation and dispatch.
+     *
+     * @return the longest time of a batch
+     */
+    long getMaxBatchTime();
+
+    /**
+     * Returns the number of listeners currently registered to the model.
+     *
+     * @return the number of registered listeners
+     */
+    int getListenerCount();
+
+    /**
+     * Returns the total number of <tt>intervalAdded</tt> calls on listeners.
+     *
+     * @return the number of dispatched events
+     */
+    long getDispatches();
+
+    /**
+     * Returns the average time of a single <tt>intervalAdded</tt> call.
+     *
+     * @return the average time of a dispatch
+     */
+    double getAverageDispatchTime();
+
+    /**
+     * Returns the latency histogram of <tt>intervalAdded</tt> calls, where the
+     * element at index <tt>i</tt> counts the calls which took from
+     * <tt>2<sup>i</sup></tt> up to <tt>2<sup>i+1</sup></tt> nanoseconds. The
+     * first element also counts the calls that took less than a nanosecond.
+     *
+     * @return the latency histogram of dispatches
+     */
+    long[] getDispatchHistogram();
+
+}
@@ -0,0 +1,208 @@
+package hr.fer.zemris.java.gui.prim;
+
+import java.util.Arrays;
+
+/**
+ * This class is an immutable snapshot of the {@linkplain PrimeMetrics} of a
+ * {@linkplain PrimListModel}, taken at a point in time. Rates are computed
+ * between two snapshots by the {@linkplain #primesPerSecond(PrimeMetricsSnapshot)}
+ * method.
+ * <p>
+ * All durations are expressed in nanoseconds.
+ *
+ * @author Mario Bobic
+ */
+public final class PrimeMetricsSnapshot {
+
+    /** Time when this snapshot was taken, by {@linkplain System#nanoTime()}. */
+    private final long timestamp;
+    /** Total number of added primes. */
+    private final long primesGenerated;
+    /** Total number of tested odd candidates. */
+    private final long candidatesTested;
+    /** Number of batches. */
+    private final long batches;
+    /** Total time of all batches. */
+    private final long batchTime;
+    /** The longest time of a batch. */
+    private final long maxBatchTime;
+    /** Number of registered listeners. */
+    private final int listenerCount;
+    /** Total number of listener calls. */
+    private final long dispatches;
+    /** Total time of all listener calls. */
+    private final long dispatchTime;
+    /** Latency histogram of listener calls, by powers of two. */
+    private final long[] dispatchHistogram;
+
+    /**
+     * Constructs an instance of {@code PrimeMetricsSnapshot} with the
+     * specified values.
+     *
+     * @param timestamp time when the snapshot was taken
+     * @param primesGenerated total number of added primes
+     * @param candidatesTested total number of tested odd candidates
+     * @param batches number of batches
+     * @param batchTime total time of all batches
+     * @param maxBatchTime the longest time of a batch
+     * @param listenerCount number of registered listeners
+     * @param dispatches total number of listener calls
+     * @param dispatchTime total time of all listener calls
+     * @param dispatchHistogram latency histogram of listener calls
+     */
+    PrimeMetricsSnapshot(long timestamp, long primesGenerated, long candidatesTested,
+            long batches, long batchTime, long maxBatchTime, int listenerCount,
+            long dispatches, long dispatchTime, long[] dispatchHistogram) {
+        this.timestamp = timestamp;
+        this.primesGenerated = primesGenerated;
+        this.candidatesTested = candidatesTested;
+        this.batches = batches;
+        this.batchTime = batchTime;
+        this.maxBatchTime = maxBatchTime;
+        this.listenerCount = listenerCount;
+        this.dispatches = dispatches;
+        this.dispatchTime = dispatchTime;
+        this.dispatchHistogram = dispatchHistogram;
+    }
+
+    /**
+     * Returns the time when this snapshot was taken, as returned by
+     * {@linkplain System#nanoTime()}.
+     *
+     * @return the time when this snapshot was taken
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns the total number of primes added to the model.
+     *
+     * @return the number of added primes
+     */
+    public long getPrimesGenerated() {
+        return primesGenerated;
+    }
+
+    /**
+     * Returns the total number of odd candidates covered by the added primes.
+     *
+     * @return the number of tested candidates
+     */
+    public long getCandidatesTested() {
+        return candidatesTested;
+    }
+
+    /**
+     * Returns the number of batches.
+     *
+     * @return the number of batches
+     */
+    public long getBatches() {
+        return batches;
+    }
+
+    /**
+     * Returns the total time of all batches.
+     *
+     * @return the total time of all batches
+     */
+    public long getBatchTime() {
+        return batchTime;
+    }
+
+    /**
+     * Returns the average time of a batch, or <tt>0</tt> if there were none.
+     *
+     * @return the average time of a batch
+     */
+    public double getAverageBatchTime() {
+        return batches == 0 ? 0 : (double) batchTime / batches;
+    }
+
+    /**
+     * Returns the longest time of a batch.
+     *
+     * @return the longest time of a batch
+     */
+    public long getMaxBatchTime() {
+        return maxBatchTime;
+    }
+
+    /**
+     * Returns the number of listeners registered to the model.
+     *
+     * @return the number of registered listeners
+     */
+    public int getListenerCount() {
+        return listenerCount;
+    }
+
+    /**
+     * Returns the total number of <tt>intervalAdded</tt> calls on listeners.
+     *
+     * @return the number of dispatched events
+     */
+    public long getDispatches() {
+        return dispatches;
+    }
+
+    /**
+     * Returns the total time of all <tt>intervalAdded</tt> calls.
+     *
+     * @return the total time of all dispatches
+     */
+    public long getDispatchTime() {
+        return dispatchTime;
+    }
+
+    /**
+     * Returns the average time of a single <tt>intervalAdded</tt> call, or
+     * <tt>0</tt> if there were none.
+     *
+     * @return the average time of a dispatch
+     */
+    public double getAverageDispatchTime() {
+        return dispatches == 0 ? 0 : (double) dispatchTime / dispatches;
+    }
+
+    /**
+     * Returns a copy of the latency histogram of <tt>intervalAdded</tt>
+     * calls, as described by {@linkplain PrimeMetricsMBean#getDispatchHistogram()}.
+     *
+     * @return the latency histogram of dispatches
+     */
+    public long[] getDispatchHistogram() {
+        return dispatchHistogram.clone();
+    }
+
+    /**
+     * Returns the number of primes added per second between the specified
+     * <tt>earlier</tt> snapshot and this one.
+     *
+     * @param earlier a snapshot taken before this one
+     * @return the number of added primes per second, or <tt>0</tt> if the
+     *         snapshots were taken at the same time
+     */
+    public double primesPerSecond(PrimeMetricsSnapshot earlier) {
+        long elapsed = timestamp - earlier.timestamp;
+        if (elapsed <= 0) {
+            return 0;
+        }
+        return (primesGenerated - earlier.primesGenerated) * 1e9 / elapsed;
+    }
+
+    @Override
+    public String toString() {
+        return "primes=" + primesGenerated
+                + ", candidates=" + candidatesTested
+                + ", batches=" + batches
+                + ", avgBatch=" + (long) getAverageBatchTime() + "ns"
+                + ", maxBatch=" + maxBatchTime + "ns"
+                + ", listeners=" + listenerCount
+                + ", dispatches=" + dispatches
+                + ", avgDispatch=" + (long) getAverageDispatchTime() + "ns"
+                + ", histogram=" + Arrays.toString(dispatchHistogram);
+    }
+
+}
@@ -0,0 +1,266 @@
+package hr.fer.zemris.java.gui.prim;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A segmented Sieve of Eratosthenes which generates prime numbers in ascending
+ * order, one cache-sized segment at a time.
+ * <p>
+ * Only odd candidates are kept in a segment, so a segment of <tt>n</tt> flags
+ * covers <tt>2n</tt> consecutive integers. A segment is crossed off using the
+ * odd prime numbers up to the square root of {@link Integer#MAX_VALUE}, which
+ * are computed only once and shared between all instances of this class.
+ * After a segment has been sieved, every following prime number is obtained by
+ * scanning forward through the segment, which makes generating a prime number
+ * an amortized <tt>O(1)</tt> operation.
+ * <p>
+ * The sieve generates primes up to and including {@link Integer#MAX_VALUE}.
+ *
+ * @author Mario Bobic
+ */
+public class PrimeSieve {
+
+    /** Default number of odd candidates in a segment, fits in the L1 cache. */
+    public static final int DEFAULT_SEGMENT_SIZE = 32 * 1024;
+
+    /** Upper bound (exclusive) of numbers that can be sieved. */
+    static final long LIMIT = (long) Integer.MAX_VALUE + 1;
+
+    /** Odd prime numbers used for crossing off composites in a segment. */
+    private static final int[] BASE_PRIMES = basePrimes((int) Math.sqrt(Integer.MAX_VALUE));
+
+    /** Composite flags of odd numbers in the current segment. */
+    private final boolean[] composite;
+
+    /** Odd number represented by the first flag of the current segment. */
+    private long segmentLow;
+    /** Number of valid flags in the current segment. */
+    private int segmentLength;
+    /** Index of the next flag in the current segment to be inspected. */
+    private int cursor;
+    /** Odd number where the next segment begins. */
+    private long nextLow;
+
+    /** Indicates that the only even prime, 2, is yet to be generated. */
+    private boolean twoPending;
+
+    /**
+     * Constructs an instance of {@code PrimeSieve} which generates prime
+     * numbers starting from <tt>2</tt>.
+     */
+    public PrimeSieve() {
+        this(2);
+    }
+
+    /**
+     * Constructs an instance of {@code PrimeSieve} which generates prime
+     * numbers greater than or equal to <tt>from</tt>.
+     *
+     * @param from the lowest number that may be generated
+     */
+    public PrimeSieve(long from) {
+        this(from, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Constructs an instance of {@code PrimeSieve} which generates prime
+     * numbers greater than or equal to <tt>from</tt>, sieving
+     * <tt>segmentSize</tt> odd candidates at a time.
+     *
+     * @param from the lowest number that may be generated
+     * @param segmentSize number of odd candidates in a segment
+     * @throws IllegalArgumentException if <tt>segmentSize &lt; 1</tt>
+     */
+    public PrimeSieve(long from, int segmentSize) {
+        if (segmentSize < 1) {
+            throw new IllegalArgumentException(
+                "Segment size must be positive: " + segmentSize);
+        }
+
+        composite = new boolean[segmentSize];
+        twoPending = from <= 2;
+        nextLow = from <= 3 ? 3 : from | 1;
+    }
+
+    /**
+     * Returns an array of odd prime numbers less than or equal to the specified
+     * <tt>max</tt>, computed by the simple Sieve of Eratosthenes.
+     *
+     * @param max the largest number that is tested
+     * @return an array of odd prime numbers up to <tt>max</tt>
+     */
+    private static int[] basePrimes(int max) {
+        boolean[] composite = new boolean[max + 1];
+        int[] primes = new int[max / 2];
+        int count = 0;
+
+        for (int i = 3; i <= max; i += 2) {
+            if (composite[i]) {
+                continue;
+            }
+            primes[count++] = i;
+            for (long j = (long) i * i; j <= max; j += 2 * i) {
+                composite[(int) j] = true;
+            }
+        }
+
+        return Arrays.copyOf(primes, count);
+    }
+
+    /**
+     * Crosses off odd composite numbers of a segment which begins with the odd
+     * number <tt>low</tt> and contains <tt>length</tt> odd numbers. After this
+     * method returns, <tt>composite[i]</tt> is false if and only if the number
+     * <tt>low + 2i</tt> is prime.
+     *
+     * @param low the odd number represented by the first flag
+     * @param length number of flags to be sieved
+     * @param composite array of flags to be filled
+     */
+    static void sieveSegment(long low, int length, boolean[] composite) {
+        Arrays.fill(composite, 0, length, false);
+        if (low == 1) {
+            composite[0] = true;
+        }
+
+        long high = low + 2L * length;
+        for (int p : BASE_PRIMES) {
+            long square = (long) p * p;
+            if (square >= high) {
+                break;
+            }
+
+            long start = Math.max(square, (low + p - 1) / p * p);
+            if ((start & 1) == 0) {
+                start += p;
+            }
+
+            for (int i = (int) ((start - low) >>> 1); i < length; i += p) {
+                composite[i] = true;
+            }
+        }
+    }
+
+    /**
+     * Returns true if there are more prime numbers to be generated.
+     *
+     * @return true if there are more prime numbers to be generated
+     */
+    public boolean hasNext() {
+        return twoPending || advance();
+    }
+
+    /**
+     * Returns the next prime number.
+     *
+     * @return the next prime number
+     * @throws NoSuchElementException if there are no more prime numbers in the
+     *         range of <tt>int</tt>
+     */
+    public int nextPrime() {
+        if (twoPending) {
+            twoPending = false;
+            return 2;
+        }
+
+        if (!advance()) {
+            throw new NoSuchElementException("No more primes in range of int.");
+        }
+        return (int) (segmentLow + 2L * cursor++);
+    }
+
+    /**
+     * Stores at most <tt>length</tt> next prime numbers into the <tt>dest</tt>
+     * array, starting at the <tt>offset</tt>. Returns the number of primes
+     * actually stored, which is less than <tt>length</tt> only if there are no
+     * more prime numbers in the range of <tt>int</tt>.
+     *
+     * @param dest destination array
+     * @param offset index in the destination array of the first prime
+     * @param length maximum number of primes to be stored
+     * @return the number of primes stored
+     */
+    public int next(int[] dest, int offset, int length) {
+        return next(dest, offset, length, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Stores at most <tt>length</tt> next prime numbers that are less than or
+     * equal to the <tt>limit</tt> into the <tt>dest</tt> array, starting at the
+     * <tt>offset</tt>. Returns the number of primes actually stored, which is
+     * less than <tt>length</tt> only if there are no more prime numbers up to
+     * the <tt>limit</tt>. Primes greater than the <tt>limit</tt> are not
+     * consumed and will be returned by subsequent calls.
+     *
+     * @param dest destination array
+     * @param offset index in the destination array of the first prime
+     * @param length maximum number of primes to be stored
+     * @param limit the largest prime number that may be stored
+     * @return the number of primes stored
+     */
+    public int next(int[] dest, int offset, int length, int limit) {
+        int count = 0;
+        if (twoPending && length > 0 && limit >= 2) {
+            twoPending = false;
+            dest[offset + count++] = 2;
+        }
+
+        while (count < length && advance()) {
+            boolean[] composite = this.composite;
+            long low = segmentLow;
+            int end = (int) Math.min(segmentLength, Math.floorDiv(limit - low, 2) + 1);
+
+            int i = cursor;
+            while (i < end && count < length) {
+                if (!composite[i]) {
+                    dest[offset + count++] = (int) (low + 2L * i);
+                }
+                i++;
+            }
+            cursor = i;
+
+            if (i < segmentLength) {
+                break;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Moves the cursor to the next prime number in the current segment,
+     * sieving new segments as needed. Returns false if there are no more
+     * prime numbers in the range of <tt>int</tt>.
+     *
+     * @return true if the cursor points to a prime number
+     */
+    private boolean advance() {
+        while (true) {
+            while (cursor < segmentLength) {
+                if (!composite[cursor]) {
+                    return true;
+                }
+                cursor++;
+            }
+
+            if (nextLow >= LIMIT) {
+                return false;
+            }
+            sieveNextSegment();
+        }
+    }
+
+    /**
+     * Sieves the segment that begins where the current one ends.
+     */
+    private void sieveNextSegment() {
+        segmentLow = nextLow;
+        segmentLength = (int) Math.min(composite.length, (LIMIT - segmentLow + 1) / 2);
+        nextLow = segmentLow + 2L * segmentLength;
+        cursor = 0;
+
+        sieveSegment(segmentLow, segmentLength, composite);
+    }
+
+}
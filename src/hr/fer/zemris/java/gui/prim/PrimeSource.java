@@ -0,0 +1,66 @@
+package hr.fer.zemris.java.gui.prim;
+
+/**
+ * This interface represents an engine which generates prime numbers in the
+ * range of <tt>int</tt>, in ascending order, for the {@linkplain PrimListModel}.
+ * The model pulls primes from its source in batches and positions the source
+ * anew whenever primes have been added to the model by other means.
+ * <p>
+ * Implementations are discovered by the {@linkplain java.util.ServiceLoader}
+ * and selected by their {@linkplain #getName() name}, as described by the
+ * {@linkplain PrimeSources} class. Every implementation must therefore have a
+ * public constructor without parameters. An instance of a source is used by a
+ * single thread and need not be thread-safe; a generator running on another
+ * thread uses a {@linkplain #newInstance() new instance} of the same kind.
+ *
+ * @author Mario Bobic
+ */
+public interface PrimeSource {
+
+    /**
+     * Returns the name by which this source is selected, for an example
+     * <tt>"sieve"</tt>.
+     *
+     * @return the name of this source
+     */
+    String getName();
+
+    /**
+     * Positions this source so that the next generated prime is the least
+     * prime number greater than or equal to <tt>from</tt>.
+     *
+     * @param from the lowest number that may be generated next
+     */
+    void seek(long from);
+
+    /**
+     * Stores at most <tt>length</tt> next prime numbers that are less than or
+     * equal to the specified <tt>limit</tt> into the <tt>dest</tt> array,
+     * starting at the <tt>offset</tt>, and returns the number of stored primes.
+     * Primes greater than the limit are not consumed.
+     *
+     * @param dest array where the prime numbers are stored
+     * @param offset index of the first stored prime
+     * @param length maximum number of primes to be stored
+     * @param limit the largest prime number that may be stored
+     * @return the number of stored primes, less than <tt>length</tt> only if
+     *         there are no more primes up to the limit
+     */
+    int next(int[] dest, int offset, int length, int limit);
+
+    /**
+     * Returns a new instance of the same kind as this source, which generates
+     * the same primes and may be used by another thread. The new instance must
+     * be {@linkplain #seek(long) positioned} before it is used.
+     * <p>
+     * The default implementation loads the source with the same name by the
+     * {@linkplain PrimeSources}.
+     *
+     * @return a new instance of the same kind as this source
+     * @throws IllegalArgumentException if the source is not registered
+     */
+    default PrimeSource newInstance() {
+        return PrimeSources.load(getName());
+    }
+
+}
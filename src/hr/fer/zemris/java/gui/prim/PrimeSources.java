@@ -0,0 +1,64 @@
+package hr.fer.zemris.java.gui.prim;
+
+import java.util.ServiceLoader;
+
+/**
+ * This class offers static methods for obtaining {@linkplain PrimeSource}
+ * implementations, which are discovered by the {@linkplain ServiceLoader}.
+ * <p>
+ * Sources are registered in the
+ * <tt>META-INF/services/hr.fer.zemris.java.gui.prim.PrimeSource</tt> file.
+ * The source used by default is selected by the {@value #SOURCE_PROPERTY}
+ * system property, for an example <tt>-Dhr.fer.zemris.java.gui.prim.source=trial</tt>,
+ * and is the {@value SievePrimeSource#NAME} source if the property is not set.
+ *
+ * @author Mario Bobic
+ */
+public final class PrimeSources {
+
+    /** System property with the name of the default prime source. */
+    public static final String SOURCE_PROPERTY = "hr.fer.zemris.java.gui.prim.source";
+
+    /**
+     * Disable instantiation.
+     */
+    private PrimeSources() {
+    }
+
+    /**
+     * Returns a new instance of the prime source selected by the
+     * {@value #SOURCE_PROPERTY} system property, or of the
+     * {@linkplain SievePrimeSource} if the property is not set.
+     *
+     * @return a new instance of the default prime source
+     * @throws IllegalArgumentException if there is no source with the name
+     *         specified by the property
+     */
+    public static PrimeSource getDefault() {
+        return load(System.getProperty(SOURCE_PROPERTY, SievePrimeSource.NAME));
+    }
+
+    /**
+     * Returns a new instance of the prime source with the specified
+     * <tt>name</tt>.
+     *
+     * @param name name of the prime source
+     * @return a new instance of the prime source
+     * @throws IllegalArgumentException if there is no source with the
+     *         specified name
+     */
+    public static PrimeSource load(String name) {
+        for (PrimeSource source : ServiceLoader.load(PrimeSource.class)) {
+            if (source.getName().equals(name)) {
+                return source;
+            }
+        }
+
+        // the registration file may be missing from the class path
+        if (name.equals(SievePrimeSource.NAME)) {
+            return new SievePrimeSource();
+        }
+        throw new IllegalArgumentException("No such prime source: " + name);
+    }
+
+}
@@ -0,0 +1,46 @@
+package hr.fer.zemris.java.gui.prim;
+
+/**
+ * This interface represents an append-only storage of prime numbers used by
+ * the {@linkplain PrimListModel}. Prime numbers are stored in the order they
+ * are added and are accessed by their index.
+ * <p>
+ * Implementations must allow a single thread to add primes while any number of
+ * other threads read them, without locking. Primes are published by the
+ * {@linkplain #add(int[], int, int)} method all at once: a reader which
+ * observes the new {@linkplain #size()} is guaranteed to observe all primes
+ * below it.
+ *
+ * @author Mario Bobic
+ */
+public interface PrimeStorage {
+
+    /**
+     * Returns the number of prime numbers in this storage.
+     *
+     * @return the number of prime numbers in this storage
+     */
+    int size();
+
+    /**
+     * Returns the prime number at the specified <tt>index</tt>.
+     *
+     * @param index index of the prime number
+     * @return the prime number at the specified index
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         (<tt>index &lt; 0 || index &gt;= size()</tt>)
+     */
+    int get(int index);
+
+    /**
+     * Appends <tt>length</tt> prime numbers from the <tt>primes</tt> array,
+     * starting at the <tt>offset</tt>, to the end of this storage.
+     *
+     * @param primes array of prime numbers to be appended
+     * @param offset index of the first prime to be appended
+     * @param length number of primes to be appended
+     * @throws OutOfMemoryError if the storage can not hold any more primes
+     */
+    void add(int[] primes, int offset, int length);
+
+}
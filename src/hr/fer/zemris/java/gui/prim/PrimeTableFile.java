@@ -0,0 +1,170 @@
+package hr.fer.zemris.java.gui.prim;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class offers static methods for saving prime numbers to a compact
+ * binary prime table file and for reopening the file through a memory mapping.
+ * <p>
+ * A prime table file begins with a header of three little-endian
+ * <tt>int</tt> values: the magic number {@linkplain #MAGIC}, the format
+ * {@linkplain #VERSION} and the number of primes in the table. The header is
+ * followed by the primes, each stored as a little-endian <tt>int</tt>.
+ * <p>
+ * Since the primes are stored exactly the way they are read, opening a table
+ * only maps the file into memory and takes the same time regardless of the
+ * number of primes in it.
+ *
+ * @author Mario Bobic
+ */
+public class PrimeTableFile {
+
+    /** Magic number at the beginning of each prime table file, "PRIM". */
+    public static final int MAGIC = 0x5052494D;
+    /** Version of the prime table file format. */
+    public static final int VERSION = 1;
+
+    /** Size of the header in bytes. */
+    private static final int HEADER_SIZE = 3 * Integer.BYTES;
+    /** Size of the buffer used for writing, expressed in bytes. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Disable instantiation.
+     */
+    private PrimeTableFile() {
+    }
+
+    /**
+     * Opens the prime table file specified by the <tt>path</tt> and returns a
+     * storage which reads prime numbers straight from the file mapping.
+     *
+     * @param path path to the prime table file
+     * @return a storage of primes mapped from the file
+     * @throws IOException if an I/O error occurs or if the file is not a valid
+     *         prime table file
+     */
+    public static MappedPrimeStorage open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE) {
+                throw new IOException("Not a prime table file: " + path);
+            }
+
+            MappedByteBuffer mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            mapping.order(ByteOrder.LITTLE_ENDIAN);
+
+            int magic = mapping.getInt(0);
+            int version = mapping.getInt(Integer.BYTES);
+            int size = mapping.getInt(2 * Integer.BYTES);
+            if (magic != MAGIC) {
+                throw new IOException("Not a prime table file: " + path);
+            }
+            if (version != VERSION) {
+                throw new IOException("Unsupported prime table version: " + version);
+            }
+            if (size < 0 || HEADER_SIZE + 4L * size > fileSize) {
+                throw new IOException("Prime table file is truncated: " + path);
+            }
+
+            mapping.position(HEADER_SIZE);
+            ByteBuffer table = mapping.slice().order(ByteOrder.LITTLE_ENDIAN);
+            return new MappedPrimeStorage(path, mapping, table, size);
+        }
+    }
+
+    /**
+     * Saves all prime numbers from the specified <tt>storage</tt> to the
+     * prime table file specified by the <tt>path</tt>. The table is first
+     * written to a temporary file, which then replaces the target file, so an
+     * existing table is never left partially written. If saving fails, the
+     * temporary file is deleted.
+     * <p>
+     * If the <tt>storage</tt> is a {@linkplain MappedPrimeStorage} mapped from
+     * the same file, it is {@linkplain MappedPrimeStorage#close() closed} after
+     * the temporary file is written and before the file is replaced, since a
+     * mapped file can not be replaced on some platforms. The storage may not be
+     * used afterwards.
+     *
+     * @param storage storage of primes to be saved
+     * @param path path to the prime table file
+     * @throws IOException if an I/O error occurs
+     */
+    public static void save(PrimeStorage storage, Path path) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try {
+            write(storage, temp);
+            if (storage instanceof MappedPrimeStorage) {
+                MappedPrimeStorage mapped = (MappedPrimeStorage) storage;
+                if (Files.exists(path) && Files.isSameFile(mapped.getPath(), path)) {
+                    mapped.close();
+                }
+            }
+            Files.move(temp, path,
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Writes all prime numbers from the specified <tt>storage</tt> to a prime
+     * table file specified by the <tt>path</tt>, replacing its contents.
+     *
+     * @param storage storage of primes to be written
+     * @param path path to the file
+     * @throws IOException if an I/O error occurs
+     */
+    private static void write(PrimeStorage storage, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            int size = storage.size();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(size);
+
+            for (int i = 0; i < size; i++) {
+                if (!buffer.hasRemaining()) {
+                    writeFully(channel, buffer);
+                }
+                buffer.putInt(storage.get(i));
+            }
+            writeFully(channel, buffer);
+        }
+    }
+
+    /**
+     * Writes all bytes of the specified <tt>buffer</tt> to the
+     * <tt>channel</tt> and clears the buffer. This method is shared with the
+     * {@linkplain PrimeExporter}.
+     *
+     * @param channel channel where the bytes are written
+     * @param buffer buffer to be written, in write mode
+     * @throws IOException if an I/O error occurs
+     */
+    static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+}
@@ -0,0 +1,74 @@
+package hr.fer.zemris.java.gui.prim;
+
+/**
+ * This class is a list model of prime numbers in a residue class, that is,
+ * prime numbers of the form <tt>mk + r</tt> for a fixed modulus <tt>m</tt>
+ * and residue <tt>r</tt>, derived from a {@linkplain PrimListModel}. For an
+ * example, the primes of the form <tt>4k + 1</tt>, which are exactly the odd
+ * primes that are sums of two squares.
+ *
+ * @author Mario Bobic
+ */
+public class ResidueClassListModel extends DerivedPrimListModel {
+
+    /** The modulus. */
+    private final int modulus;
+    /** The residue modulo the modulus. */
+    private final int residue;
+
+    /**
+     * Constructs an instance of {@code ResidueClassListModel} derived from the
+     * specified <tt>source</tt> model, which contains the primes of the form
+     * <tt>modulus * k + residue</tt>.
+     *
+     * @param source model of prime numbers this model is derived from
+     * @param modulus the modulus
+     * @param residue the residue, <tt>0 &lt;= residue &lt; modulus</tt>
+     * @throws IllegalArgumentException if <tt>modulus &lt; 1</tt> or the
+     *         residue is out of range
+     */
+    public ResidueClassListModel(PrimListModel source, int modulus, int residue) {
+        super(source);
+        if (modulus < 1) {
+            throw new IllegalArgumentException("Modulus must be positive: " + modulus);
+        }
+        if (residue < 0 || residue >= modulus) {
+            throw new IllegalArgumentException(
+                "Residue must be in range 0-" + (modulus - 1) + ": " + residue);
+        }
+        this.modulus = modulus;
+        this.residue = residue;
+        attach();
+    }
+
+    /**
+     * Returns the modulus.
+     *
+     * @return the modulus
+     */
+    public int getModulus() {
+        return modulus;
+    }
+
+    /**
+     * Returns the residue modulo the modulus.
+     *
+     * @return the residue
+     */
+    public int getResidue() {
+        return residue;
+    }
+
+    @Override
+    protected void accept(PrimeStorage primes, int index) {
+        if (index < 1) {
+            return;
+        }
+
+        int prime = primes.get(index);
+        if (prime % modulus == residue) {
+            add(prime);
+        }
+    }
+
+}
@@ -0,0 +1,33 @@
+package hr.fer.zemris.java.gui.prim;
+
+/**
+ * This class implements the {@linkplain PrimeSource} interface and generates
+ * prime numbers by a segmented {@linkplain PrimeSieve}. This is the default
+ * source of the {@linkplain PrimListModel}.
+ *
+ * @author Mario Bobic
+ */
+public class SievePrimeSource implements PrimeSource {
+
+    /** Name of this source. */
+    public static final String NAME = "sieve";
+
+    /** Sieve which generates the next primes. */
+    private PrimeSieve sieve = new PrimeSieve();
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void seek(long from) {
+        sieve = new PrimeSieve(from);
+    }
+
+    @Override
+    public int next(int[] dest, int offset, int length, int limit) {
+        return sieve.next(dest, offset, length, limit);
+    }
+
+}
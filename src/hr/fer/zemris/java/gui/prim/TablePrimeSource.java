@@ -0,0 +1,140 @@
+package hr.fer.zemris.java.gui.prim;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+
+/**
+ * This class implements the {@linkplain PrimeSource} interface and reads prime
+ * numbers from a precomputed prime table, for an example a memory-mapped
+ * {@linkplain PrimeTableFile}. Primes beyond the last one in the table are
+ * generated by a {@linkplain PrimeSieve}.
+ * <p>
+ * When this source is created by the {@linkplain java.util.ServiceLoader}, the
+ * table is opened upon the first use from the file specified by the
+ * {@value #TABLE_PROPERTY} system property. If the property is not set, the
+ * table is empty and all primes are sieved.
+ *
+ * @author Mario Bobic
+ */
+public class TablePrimeSource implements PrimeSource {
+
+    /** Name of this source. */
+    public static final String NAME = "table";
+    /** System property with the path to the prime table file. */
+    public static final String TABLE_PROPERTY = "hr.fer.zemris.java.gui.prim.table";
+
+    /** Table of primes in ascending order, <tt>null</tt> until opened. */
+    private PrimeStorage table;
+    /** Index of the next prime in the table. */
+    private int index;
+    /** Sieve which generates primes beyond the table, <tt>null</tt> until needed. */
+    private PrimeSieve sieve;
+    /** The lowest number that may be generated by the sieve. */
+    private long sieveFrom;
+
+    /**
+     * Constructs an instance of {@code TablePrimeSource} which reads the table
+     * from the file specified by the {@value #TABLE_PROPERTY} system property.
+     */
+    public TablePrimeSource() {
+    }
+
+    /**
+     * Constructs an instance of {@code TablePrimeSource} which reads primes
+     * from the specified <tt>table</tt>. The table must contain all primes up
+     * to its last one in ascending order, and may begin with the value 1, as
+     * the storage of a {@linkplain PrimListModel} does.
+     *
+     * @param table table of primes in ascending order
+     */
+    public TablePrimeSource(PrimeStorage table) {
+        this.table = table;
+        seek(2);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void seek(long from) {
+        PrimeStorage table = table();
+        from = Math.max(from, 2);
+
+        int low = 0;
+        int high = table.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (table.get(mid) < from) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        index = low;
+        sieve = null;
+        sieveFrom = table.size() == 0 ? from : Math.max(from, table.get(table.size() - 1) + 1L);
+    }
+
+    @Override
+    public int next(int[] dest, int offset, int length, int limit) {
+        PrimeStorage table = table();
+        int count = 0;
+        while (count < length && index < table.size()) {
+            int prime = table.get(index);
+            if (prime > limit) {
+                return count;
+            }
+            dest[offset + count++] = prime;
+            index++;
+        }
+
+        if (count < length) {
+            if (sieve == null) {
+                sieve = new PrimeSieve(sieveFrom);
+            }
+            count += sieve.next(dest, offset + count, length - count, limit);
+        }
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The new instance shares the table of this source, which is opened first
+     * if this is its first use.
+     *
+     * @throws UncheckedIOException if the table file can not be opened
+     */
+    @Override
+    public PrimeSource newInstance() {
+        return new TablePrimeSource(table());
+    }
+
+    /**
+     * Returns the table of primes, opening it first from the file specified
+     * by the system property if this is the first use.
+     *
+     * @return the table of primes
+     * @throws UncheckedIOException if the table file can not be opened
+     */
+    private PrimeStorage table() {
+        if (table == null) {
+            String path = System.getProperty(TABLE_PROPERTY);
+            if (path == null) {
+                table = new ArrayPrimeStorage(0);
+            } else {
+                try {
+                    table = PrimeTableFile.open(Paths.get(path));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+        return table;
+    }
+
+}
@@ -0,0 +1,64 @@
+package hr.fer.zemris.java.gui.prim;
+
+/**
+ * This class implements the {@linkplain PrimeSource} interface and generates
+ * prime numbers by testing each candidate by trial division up to its square
+ * root. This is the original implementation of the {@linkplain PrimListModel},
+ * which needs no memory, but takes <tt>O(sqrt(n))</tt> time per candidate.
+ *
+ * @author Mario Bobic
+ */
+public class TrialDivisionPrimeSource implements PrimeSource {
+
+    /** Name of this source. */
+    public static final String NAME = "trial";
+
+    /** The next number to be tested. */
+    private long candidate = 2;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void seek(long from) {
+        candidate = Math.max(from, 2);
+    }
+
+    @Override
+    public int next(int[] dest, int offset, int length, int limit) {
+        int count = 0;
+        while (count < length && candidate <= limit) {
+            if (isPrime((int) candidate)) {
+                dest[offset + count++] = (int) candidate;
+            }
+            candidate++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns true if the specified <tt>number</tt> is a prime number.
+     *
+     * @param number number that is tested for prime
+     * @return true if number is prime
+     */
+    private static boolean isPrime(int number) {
+        if (number <= 1) {
+            return false;
+        }
+        if (number % 2 == 0) {
+            return number == 2;
+        }
+
+        int numberSqrt = (int) Math.sqrt((double) number);
+        for (int i = 3; i <= numberSqrt; i += 2) {
+            if (number % i == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
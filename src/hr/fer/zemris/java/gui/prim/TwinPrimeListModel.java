@@ -0,0 +1,36 @@
+package hr.fer.zemris.java.gui.prim;
+
+/**
+ * This class is a list model of twin primes derived from a
+ * {@linkplain PrimListModel}. Each pair of twin primes <tt>(p, p + 2)</tt> is
+ * represented by its lesser prime <tt>p</tt>, so the list begins with 3, 5,
+ * 11 and 17.
+ *
+ * @author Mario Bobic
+ */
+public class TwinPrimeListModel extends DerivedPrimListModel {
+
+    /**
+     * Constructs an instance of {@code TwinPrimeListModel} derived from the
+     * specified <tt>source</tt> model.
+     *
+     * @param source model of prime numbers this model is derived from
+     */
+    public TwinPrimeListModel(PrimListModel source) {
+        super(source);
+        attach();
+    }
+
+    @Override
+    protected void accept(PrimeStorage primes, int index) {
+        if (index < 2) {
+            return;
+        }
+
+        int previous = primes.get(index - 1);
+        if (primes.get(index) - previous == 2) {
+            add(previous);
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+package hr.fer.zemris.java.gui.prim;
+
+import java.awt.*;
+import javax.swing.*;
+
+/**
+ * This class is a {@linkplain JFrame} which demonstrates the usage of
+ * {@linkplain VirtualPrimListModel}. It creates a single <tt>JList</tt> that
+ * shows all prime numbers up to a limit, which are computed only when they
+ * are scrolled into view, and a {@linkplain PrimJumpPanel} that jumps to any
+ * prime in the list by its index or value.
+ * <p>
+ * The frame is positioned in the middle and it takes up one sixth of the screen
+ * width and one half of the screen height.
+ * <p>
+ * The program accepts an optional command-line argument: the largest number
+ * that is tested for prime. The default limit is {@value #DEFAULT_LIMIT}.
+ *
+ * @author Mario Bobic
+ */
+public class VirtualPrimDemo extends JFrame {
+    /** Serialization UID. */
+    private static final long serialVersionUID = 1L;
+
+    /** Default largest number that is tested for prime. */
+    private static final int DEFAULT_LIMIT = 1_000_000_000;
+
+    /**
+     * Constructs and initializes this frame with GUI components.
+     *
+     * @param model model of prime numbers to be shown
+     */
+    public VirtualPrimDemo(VirtualPrimListModel model) {
+        setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
+        setTitle("VirtualPrimDemo");
+
+        Dimension screen = Toolkit.getDefaultToolkit().getScreenSize();
+        setSize(screen.width / 6, screen.height / 2);
+
+        initGUI(model);
+
+        setLocationRelativeTo(null);
+    }
+
+    /**
+     * Initializes the GUI by adding the <tt>BorderLayout</tt> manager to the
+     * content pane and adds a JList with the specified <tt>model</tt> and a
+     * panel for jumping through the list to it.
+     * <p>
+     * The list is given a prototype cell value, so it does not measure every
+     * element of the model.
+     *
+     * @param model model of prime numbers to be shown
+     */
+    private void initGUI(VirtualPrimListModel model) {
+        Container cp = getContentPane();
+        cp.setLayout(new BorderLayout());
+
+        JList<Integer> list = new JList<>(model);
+        list.setPrototypeCellValue(Integer.MAX_VALUE);
+
+        JLabel sizeLabel = new JLabel(
+            model.getSize() - 1 + " primes up to " + model.getLimit(), JLabel.CENTER);
+
+        cp.add(new PrimJumpPanel(list, model), BorderLayout.PAGE_START);
+        cp.add(new JScrollPane(list), BorderLayout.CENTER);
+        cp.add(sizeLabel, BorderLayout.PAGE_END);
+    }
+
+    /**
+     * Program entry point.
+     *
+     * @param args optional largest number that is tested for prime
+     */
+    public static void main(String[] args) {
+        if (args.length > 1) {
+            System.err.println("Expected at most one argument: Limit.");
+            return;
+        }
+
+        int limit = DEFAULT_LIMIT;
+        if (args.length == 1) {
+            try {
+                limit = Integer.parseInt(args[0]);
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid limit: " + args[0]);
+                return;
+            }
+        }
+
+        VirtualPrimListModel model;
+        try {
+            model = new VirtualPrimListModel(limit);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return;
+        }
+
+        SwingUtilities.invokeLater(() -> {
+            new VirtualPrimDemo(model).setVisible(true);
+        });
+    }
+}
@@ -0,0 +1,223 @@
+package hr.fer.zemris.java.gui.prim;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.ListModel;
+import javax.swing.event.ListDataListener;
+
+/**
+ * This class implements the {@linkplain ListModel} interface and represents
+ * a read-only list model of all prime numbers up to a fixed limit, which are
+ * computed only when they are requested.
+ * <p>
+ * Like the {@linkplain PrimListModel}, the list begins with the value 1, so the
+ * element at index <tt>n</tt> is the <tt>n</tt>-th prime number. The size of the
+ * list is computed upon construction by {@linkplain PrimeCounting#primePi(long)}.
+ * The list is divided into blocks of a fixed number of elements, and when an
+ * element is requested, the block containing it is generated and kept in a
+ * bounded cache of recently used blocks. A block following a cached block is
+ * generated by continuing the sieve after the cached one, while any other block
+ * is located by {@linkplain PrimeCounting#nthPrime(int)} and a sieve around it.
+ * This makes it possible to jump to any element of the list without generating
+ * or storing the primes before it.
+ * <p>
+ * The contents of this model never change, so the registered listeners are
+ * never notified.
+ * <p>
+ * The {@linkplain PrimeIndex} methods may be called from any thread, while the
+ * list is painted on the event dispatch thread. The cache is therefore only
+ * accessed while holding its lock, and blocks are generated outside of it. A
+ * prime looked up by {@linkplain #primeAt(int)} whose block is not cached is
+ * found by {@linkplain PrimeCounting#nthPrime(int)} without generating the
+ * block.
+ *
+ * @author Mario Bobic
+ */
+public class VirtualPrimListModel implements ListModel<Integer>, PrimeIndex {
+
+    /** Default number of elements in a block. */
+    public static final int DEFAULT_BLOCK_SIZE = 4 * 1024;
+    /** Default maximum number of blocks kept in the cache. */
+    public static final int DEFAULT_CACHE_SIZE = 32;
+
+    /** The largest number that is tested for prime. */
+    private final int limit;
+    /** Number of elements in a block. */
+    private final int blockSize;
+    /** Total number of elements in the list. */
+    private final int size;
+
+    /** Cache of recently used blocks, by block indexes. */
+    private final Map<Integer, int[]> cache;
+
+    /** List of list data listeners registered to this model. */
+    private List<ListDataListener> listeners = new ArrayList<>();
+
+    /**
+     * Constructs an instance of {@code VirtualPrimListModel} which contains
+     * all prime numbers less than or equal to the specified <tt>limit</tt>,
+     * using the default block and cache size.
+     *
+     * @param limit the largest number that is tested for prime
+     */
+    public VirtualPrimListModel(int limit) {
+        this(limit, DEFAULT_BLOCK_SIZE, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Constructs an instance of {@code VirtualPrimListModel} which contains
+     * all prime numbers less than or equal to the specified <tt>limit</tt>,
+     * generating <tt>blockSize</tt> elements at a time and keeping at most
+     * <tt>cacheSize</tt> generated blocks.
+     *
+     * @param limit the largest number that is tested for prime
+     * @param blockSize number of elements in a block
+     * @param cacheSize maximum number of blocks kept in the cache
+     * @throws IllegalArgumentException if <tt>limit &lt; 2</tt>,
+     *         <tt>blockSize &lt; 1</tt> or <tt>cacheSize &lt; 1</tt>
+     */
+    public VirtualPrimListModel(int limit, int blockSize, int cacheSize) {
+        if (limit < 2) {
+            throw new IllegalArgumentException("Limit must be at least 2: " + limit);
+        }
+        if (blockSize < 1) {
+            throw new IllegalArgumentException(
+                "Block size must be positive: " + blockSize);
+        }
+        if (cacheSize < 1) {
+            throw new IllegalArgumentException(
+                "Cache size must be positive: " + cacheSize);
+        }
+
+        this.limit = limit;
+        this.blockSize = blockSize;
+        this.size = (int) PrimeCounting.primePi(limit) + 1;
+        this.cache = new LinkedHashMap<Integer, int[]>(cacheSize, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, int[]> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the largest number that is tested for prime.
+     *
+     * @return the limit of this model
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         (<tt>index &lt; 0 || index &gt;= getSize()</tt>)
+     */
+    @Override
+    public Integer getElementAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(
+                "Index: " + index + ", Size: " + size);
+        }
+        return block(index / blockSize)[index % blockSize];
+    }
+
+    @Override
+    public int primeAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException(
+                "Index out of range: " + index + ", Size: " + size);
+        }
+
+        int[] block = cached(index / blockSize);
+        if (block != null) {
+            return block[index % blockSize];
+        }
+        return index == 0 ? 1 : PrimeCounting.nthPrime(index);
+    }
+
+    @Override
+    public int indexOf(int value) {
+        if (value == 1) {
+            return 0;
+        }
+        if (value < 1 || value > limit || !MillerRabin.isPrime(value)) {
+            return -1;
+        }
+        return (int) PrimeCounting.primePi(value);
+    }
+
+    /**
+     * Returns the elements of the block with the specified index, taking them
+     * from the cache or generating the block if it is not cached.
+     *
+     * @param b index of the block
+     * @return an array of elements in the block
+     */
+    private int[] block(int b) {
+        int[] block = cached(b);
+        if (block != null) {
+            return block;
+        }
+
+        int first = b * blockSize;
+        block = new int[Math.min(blockSize, size - first)];
+
+        int offset = 0;
+        PrimeSieve sieve;
+        int[] previous = cached(b - 1);
+        if (first == 0) {
+            block[offset++] = 1;
+            sieve = new PrimeSieve();
+        } else if (previous != null) {
+            sieve = new PrimeSieve(previous[previous.length - 1] + 1L);
+        } else {
+            sieve = new PrimeSieve(PrimeCounting.nthPrime(first));
+        }
+        sieve.next(block, offset, block.length - offset);
+
+        synchronized (cache) {
+            cache.put(b, block);
+        }
+        return block;
+    }
+
+    /**
+     * Returns the elements of the block with the specified index if it is
+     * cached, or <tt>null</tt> otherwise.
+     *
+     * @param b index of the block
+     * @return an array of elements in the block, or <tt>null</tt>
+     */
+    private int[] cached(int b) {
+        // even a get changes the order of an access-ordered map
+        synchronized (cache) {
+            return cache.get(b);
+        }
+    }
+
+    @Override
+    public void addListDataListener(ListDataListener l) {
+        listeners = new ArrayList<>(listeners);
+        listeners.add(l);
+    }
+
+    @Override
+    public void removeListDataListener(ListDataListener l) {
+        listeners = new ArrayList<>(listeners);
+        listeners.remove(l);
+    }
+
+}
@@ -0,0 +1,337 @@
+package hr.fer.zemris.java.gui.prim.benchmark;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+
+import hr.fer.zemris.java.gui.prim.ArrayPrimeStorage;
+import hr.fer.zemris.java.gui.prim.BigPrimListModel;
+import hr.fer.zemris.java.gui.prim.GapEncodedPrimeStorage;
+import hr.fer.zemris.java.gui.prim.PrimListModel;
+import hr.fer.zemris.java.gui.prim.PrimeStorage;
+
+/**
+ * This class is a benchmark suite for the prime generation strategies of the
+ * {@linkplain PrimListModel}. It measures:
+ * <ul>
+ * <li>the cost of a single {@linkplain PrimListModel#next()} call, compared to
+ * the original trial division implementation,
+ * <li>bulk generation of <tt>10<sup>4</sup></tt> up to
+ * <tt>10<sup>8</sup></tt> primes by {@linkplain PrimListModel#next(int)},
+ * <li>memory used per stored prime by each {@linkplain PrimeStorage} and by a
+ * list of boxed integers and
+ * <li>the cost of listener dispatch with 0, 2 and 50 registered
+ * <tt>ListDataListeners</tt> and
+ * <li>throughput of the {@linkplain BigPrimListModel} for primes of 1024 up
+ * to 4096 bits.
+ * </ul>
+ * Each measurement is repeated for a number of warmup iterations, whose
+ * results are discarded, and then for a number of measured iterations, whose
+ * average and best times are reported. Probable primes take seconds each at
+ * the largest sizes, so they are only generated once after a single warmup
+ * prime.
+ * <p>
+ * The program accepts an optional command-line argument: the decimal exponent
+ * of the largest bulk generation size, from 4 to 8. The default is 7; the size
+ * of <tt>10<sup>8</sup></tt> primes requires a heap of at least 1 GB.
+ *
+ * @author Mario Bobic
+ */
+public class PrimBenchmark {
+
+    /** Number of warmup iterations, whose results are discarded. */
+    private static final int WARMUP_ITERATIONS = 3;
+    /** Number of measured iterations. */
+    private static final int MEASURED_ITERATIONS = 5;
+
+    /** Default decimal exponent of the largest bulk generation size. */
+    private static final int DEFAULT_MAX_EXPONENT = 7;
+
+    /** Number of primes generated one by one in the single-step benchmarks. */
+    private static final int SINGLE_STEPS = 100_000;
+    /** Number of primes stored in the memory benchmark. */
+    private static final int MEMORY_PRIMES = 5_000_000;
+    /** Number of probable primes generated for each size in bits. */
+    private static final int BIG_PRIMES = 4;
+
+    /** Sink for the benchmark results, prevents dead code elimination. */
+    private static volatile long sink;
+
+    /**
+     * Program entry point.
+     *
+     * @param args optional decimal exponent of the largest bulk size
+     */
+    public static void main(String[] args) {
+        int maxExponent = DEFAULT_MAX_EXPONENT;
+        if (args.length == 1) {
+            try {
+                maxExponent = Integer.parseInt(args[0]);
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid exponent: " + args[0]);
+                return;
+            }
+        }
+        if (maxExponent < 4 || maxExponent > 8) {
+            System.err.println("Exponent must be in range 4-8.");
+            return;
+        }
+
+        benchmarkSingleStep();
+        benchmarkBulk(maxExponent);
+        benchmarkMemory();
+        benchmarkDispatch();
+        benchmarkBigPrimes();
+    }
+
+    /**
+     * Measures generating primes one by one with the original trial division
+     * and with {@linkplain PrimListModel#next()}.
+     */
+    private static void benchmarkSingleStep() {
+        System.out.println("# next(), " + SINGLE_STEPS + " primes one by one");
+
+        measure("trial division", SINGLE_STEPS, () -> {
+            List<Integer> primes = new ArrayList<>();
+            int last = 1;
+            for (int i = 0; i < SINGLE_STEPS; i++) {
+                int candidate = last + 1;
+                while (!isPrimeByTrialDivision(candidate)) {
+                    candidate++;
+                }
+                primes.add(candidate);
+                last = candidate;
+            }
+            return (long) primes.size();
+        });
+
+        measure("PrimListModel.next()", SINGLE_STEPS, () -> {
+            PrimListModel model = new PrimListModel();
+            for (int i = 0; i < SINGLE_STEPS; i++) {
+                model.next();
+            }
+            return (long) model.getSize();
+        });
+    }
+
+    /**
+     * Measures bulk generation by {@linkplain PrimListModel#next(int)} for
+     * sizes from <tt>10<sup>4</sup></tt> up to
+     * <tt>10<sup>maxExponent</sup></tt>.
+     *
+     * @param maxExponent decimal exponent of the largest size
+     */
+    private static void benchmarkBulk(int maxExponent) {
+        System.out.println("# next(count), bulk generation");
+
+        int count = 10_000;
+        for (int exponent = 4; exponent <= maxExponent; exponent++, count *= 10) {
+            int n = count;
+            measure("next(10^" + exponent + ")", n, () -> {
+                PrimListModel model = new PrimListModel(new ArrayPrimeStorage(n + 1));
+                model.next(n);
+                return (long) model.getLast();
+            });
+        }
+    }
+
+    /**
+     * Measures memory used per stored prime by a list of boxed integers and by
+     * each {@linkplain PrimeStorage}.
+     */
+    private static void benchmarkMemory() {
+        System.out.println("# memory per stored prime, " + MEMORY_PRIMES + " primes");
+
+        PrimListModel source = new PrimListModel();
+        source.next(MEMORY_PRIMES - 1);
+        PrimeStorage primes = source.getStorage();
+
+        measureMemory("List<Integer>", () -> {
+            List<Integer> list = new ArrayList<>();
+            for (int i = 0; i < primes.size(); i++) {
+                list.add(primes.get(i));
+            }
+            return list;
+        });
+        measureMemory("ArrayPrimeStorage", () -> copy(primes, new ArrayPrimeStorage()));
+        measureMemory("GapEncodedPrimeStorage", () -> copy(primes, new GapEncodedPrimeStorage()));
+    }
+
+    /**
+     * Measures the cost of a single {@linkplain PrimListModel#next()} call
+     * with 0, 2 and 50 registered listeners, which is dominated by listener
+     * dispatch.
+     */
+    private static void benchmarkDispatch() {
+        System.out.println("# listener dispatch, " + SINGLE_STEPS + " events");
+
+        IntFunction<PrimListModel> factory = (listenerCount) -> {
+            PrimListModel model = new PrimListModel();
+            for (int i = 0; i < listenerCount; i++) {
+                model.addListDataListener(new CountingListener());
+            }
+            return model;
+        };
+
+        for (int listenerCount : new int[] {0, 2, 50}) {
+            measure(listenerCount + " listeners", SINGLE_STEPS, () -> {
+                PrimListModel model = factory.apply(listenerCount);
+                for (int i = 0; i < SINGLE_STEPS; i++) {
+                    model.next();
+                }
+                return (long) model.getSize() + CountingListener.events;
+            });
+        }
+    }
+
+    /**
+     * Measures the throughput of generating probable primes of 1024, 2048,
+     * 3072 and 4096 bits by the {@linkplain BigPrimListModel}, using all
+     * available processors.
+     */
+    private static void benchmarkBigPrimes() {
+        System.out.println("# BigPrimListModel.next(" + BIG_PRIMES + "), "
+                + Runtime.getRuntime().availableProcessors() + " processors");
+
+        for (int bits = 1024; bits <= 4096; bits += 1024) {
+            BigInteger from = BigInteger.ONE.shiftLeft(bits - 1).setBit(bits / 2);
+            BigPrimListModel model = new BigPrimListModel(from);
+            model.next();
+
+            long start = System.nanoTime();
+            model.next(BIG_PRIMES);
+            long time = System.nanoTime() - start;
+            model.shutdown();
+
+            System.out.printf("%-28s %12.2f ms/prime (%.2f primes/s)%n",
+                    bits + " bits", time / 1e6 / BIG_PRIMES, BIG_PRIMES / (time / 1e9));
+        }
+    }
+
+    /**
+     * Runs the specified <tt>benchmark</tt> for the warmup and measured
+     * iterations and prints the average and the best time per operation.
+     *
+     * @param name name of the benchmark
+     * @param operations number of operations done by a single run
+     * @param benchmark benchmark that returns a value to be consumed
+     */
+    private static void measure(String name, int operations, Supplier<Long> benchmark) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink += benchmark.get();
+        }
+
+        long total = 0;
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            sink += benchmark.get();
+            long time = System.nanoTime() - start;
+
+            total += time;
+            best = Math.min(best, time);
+        }
+
+        double average = (double) total / MEASURED_ITERATIONS / operations;
+        System.out.printf("%-28s %12.2f ns/op (best %.2f ns/op)%n",
+                name, average, (double) best / operations);
+    }
+
+    /**
+     * Creates the object specified by the <tt>factory</tt> and prints the
+     * memory it retains per stored prime.
+     *
+     * @param name name of the benchmark
+     * @param factory factory of the object that stores primes
+     */
+    private static void measureMemory(String name, Supplier<Object> factory) {
+        long before = usedMemory();
+        Object retained = factory.get();
+        long after = usedMemory();
+
+        sink += retained.hashCode();
+        System.out.printf("%-28s %12.2f bytes/prime%n",
+                name, (double) (after - before) / MEMORY_PRIMES);
+    }
+
+    /**
+     * Returns the memory used by the heap after a few garbage collections.
+     *
+     * @return the used heap memory in bytes
+     */
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Copies all primes from the <tt>source</tt> to the <tt>target</tt>
+     * storage and returns the target.
+     *
+     * @param source storage to be copied
+     * @param target storage where the primes are copied
+     * @return the target storage
+     */
+    private static PrimeStorage copy(PrimeStorage source, PrimeStorage target) {
+        int[] buffer = new int[1];
+        for (int i = 0; i < source.size(); i++) {
+            buffer[0] = source.get(i);
+            target.add(buffer, 0, 1);
+        }
+        return target;
+    }
+
+    /**
+     * Returns true if the specified <tt>number</tt> is a prime number, using
+     * trial division up to its square root. This is the original
+     * implementation of the {@linkplain PrimListModel}.
+     *
+     * @param number number that is tested for prime
+     * @return true if number is prime
+     */
+    private static boolean isPrimeByTrialDivision(int number) {
+        if (number <= 1) {
+            return false;
+        }
+
+        int numberSqrt = (int) Math.sqrt((double) number);
+        for (int i = 2; i <= numberSqrt; i++) {
+            if (number % i == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A list data listener which only counts the added intervals.
+     *
+     * @author Mario Bobic
+     */
+    private static class CountingListener implements ListDataListener {
+        /** Number of received events, shared by all instances. */
+        private static long events;
+
+        @Override
+        public void intervalAdded(ListDataEvent e) {
+            events++;
+        }
+
+        @Override
+        public void intervalRemoved(ListDataEvent e) {
+        }
+
+        @Override
+        public void contentsChanged(ListDataEvent e) {
+        }
+    }
+
+}